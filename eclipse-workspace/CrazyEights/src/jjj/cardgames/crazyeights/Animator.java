@@ -0,0 +1,199 @@
+package jjj.cardgames.crazyeights;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.ArrayList;
+import javax.swing.JComponent;
+import javax.swing.Timer;
+
+/**
+ * The frame clock of a panel: one Swing timer which, while anything is animating, advances every
+ * playing {@link Sequence} about 60 times a second and asks the panel to repaint.
+ *
+ * Everything runs on the event dispatch thread, as the timer fires there, but nothing waits:
+ * sequences pause by letting frames go by, so input and painting carry on between frames.
+ *
+ * @author Joshua Hardman
+ *
+ */
+public class Animator {
+
+  private static final int FRAME_MILLIS = 16;
+
+  private JComponent component;
+  private Timer clock;
+  private ArrayList<Sequence> playing;
+
+  /**
+   * Constructs a frame clock repainting the given component.
+   */
+  public Animator(JComponent component) {
+    this.component = component;
+    this.playing = new ArrayList<Sequence>();
+    clock = new Timer(FRAME_MILLIS, new ActionListener() {
+
+      @Override
+      /**
+       * Advances every sequence to the current time.
+       */
+      public void actionPerformed(ActionEvent event) {
+        tick();
+      }
+    });
+    clock.setCoalesce(true);
+  }
+
+  /**
+   * Starts playing the given sequence alongside any already playing.
+   */
+  public void play(Sequence sequence) {
+    sequence.step = 0;
+    sequence.stepStart = System.nanoTime();
+    sequence.started = false;
+    sequence.cancelled = false;
+    if (!playing.contains(sequence)) {
+      playing.add(sequence);
+    }
+    if (!clock.isRunning()) {
+      clock.start();
+    }
+  }
+
+  /**
+   * Starts playing the given tween on its own and returns its sequence.
+   */
+  public Sequence play(Tween tween) {
+    Sequence sequence = new Sequence().tween(tween);
+    play(sequence);
+    return sequence;
+  }
+
+  /**
+   * Runs the given action on a frame once the given time has passed and returns its sequence.
+   */
+  public Sequence after(long delayMillis, Runnable action) {
+    Sequence sequence = new Sequence().pause(delayMillis).then(action);
+    play(sequence);
+    return sequence;
+  }
+
+  /**
+   * Stops the given sequence where it is, if it is playing.
+   */
+  public void cancel(Sequence sequence) {
+    sequence.cancelled = true;
+    playing.remove(sequence);
+  }
+
+  /**
+   * Stops every sequence and the clock.
+   */
+  public void stop() {
+    for (Sequence sequence : playing) {
+      sequence.cancelled = true;
+    }
+    playing.clear();
+    clock.stop();
+  }
+
+  /**
+   * Advances every sequence, dropping those which have finished, and repaints.
+   */
+  private void tick() {
+    long now = System.nanoTime();
+    // Sequences may start or cancel others as they run, so this walks a copy.
+    for (Sequence sequence : new ArrayList<Sequence>(playing)) {
+      if (!sequence.cancelled && sequence.advance(now)) {
+        playing.remove(sequence);
+      }
+    }
+    if (playing.isEmpty()) {
+      clock.stop();
+    }
+    component.repaint();
+  }
+
+  /**
+   * Steps played one after another: tweens, pauses and actions.
+   */
+  public static class Sequence {
+
+    private ArrayList<Step> steps = new ArrayList<Step>();
+    private int step;
+    private long stepStart;
+    private boolean started;
+    private boolean cancelled;
+
+    /**
+     * Adds a tween, played to its end before the next step.
+     */
+    public Sequence tween(Tween tween) {
+      steps.add(new Step(tween, 0L, null));
+      return this;
+    }
+
+    /**
+     * Adds a pause of the given time.
+     */
+    public Sequence pause(long millis) {
+      steps.add(new Step(null, millis * 1000000L, null));
+      return this;
+    }
+
+    /**
+     * Adds an action, run on the frame the step before finishes.
+     */
+    public Sequence then(Runnable action) {
+      steps.add(new Step(null, 0L, action));
+      return this;
+    }
+
+    /**
+     * Plays the steps due by the given {@link System#nanoTime()}.
+     *
+     * @return True once every step has been played or the sequence was cancelled.
+     */
+    boolean advance(long now) {
+      while (step < steps.size() && !cancelled) {
+        Step current = steps.get(step);
+        if (current.tween != null) {
+          if (!started) {
+            current.tween.start(stepStart);
+            started = true;
+          }
+          if (!current.tween.advance(now)) {
+            return false;
+          }
+          stepStart = now;
+        } else if (current.action != null) {
+          current.action.run();
+        } else {
+          if (now - stepStart < current.pause) {
+            return false;
+          }
+          // Keeps to the planned times even when a frame comes late.
+          stepStart += current.pause;
+        }
+        step++;
+        started = false;
+      }
+      return true;
+    }
+  }
+
+  /**
+   * One step of a sequence: a tween, a pause in nanoseconds or an action.
+   */
+  private static class Step {
+
+    private Tween tween;
+    private long pause;
+    private Runnable action;
+
+    Step(Tween tween, long pause, Runnable action) {
+      this.tween = tween;
+      this.pause = pause;
+      this.action = action;
+    }
+  }
+}
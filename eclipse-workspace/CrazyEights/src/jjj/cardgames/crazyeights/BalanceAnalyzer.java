@@ -0,0 +1,206 @@
+package jjj.cardgames.crazyeights;
+
+import java.util.ArrayList;
+
+/**
+ * Measures how fair and how long games are for each number of players and choice of wild rank,
+ * playing headless games only until every measure is known closely enough.
+ *
+ * Each configuration is simulated in looks of doubling size, deal n always being stream n of the
+ * seed. After each look the confidence interval of every measure is checked against its margin:
+ * each seat's win rate, and so the advantage of moving first, the mean game length and the mean
+ * number of reshuffles. Checking the intervals again and again would let chance stop a run early,
+ * so look k uses an error rate of alpha / (k (k + 1)), split evenly between the measures; these sum
+ * to alpha, so every interval reported holds at once with 95% confidence whenever the run stops.
+ *
+ * @author Joshua Hardman
+ *
+ */
+public class BalanceAnalyzer {
+
+  // The number of games in the first look; each look after doubles the total.
+  private static final long FIRST_LOOK = 1 << 14;
+  // The chance of any reported interval missing its measure.
+  private static final double ALPHA = 0.05;
+
+  private long seed;
+  private int threads;
+  private long maxGames;
+  private double winRateMargin;
+  private double turnsMargin;
+  private double reshufflesMargin;
+
+  /**
+   * Constructs an analyzer playing games from the given seed on the given number of threads and
+   * giving up on a configuration after the given number of games.
+   */
+  public BalanceAnalyzer(long seed, int threads, long maxGames) {
+    this.seed = seed;
+    this.threads = threads;
+    this.maxGames = maxGames;
+    this.winRateMargin = 0.005;
+    this.turnsMargin = 0.25;
+    this.reshufflesMargin = 0.01;
+  }
+
+  /**
+   * Sets the largest half-widths of the confidence intervals at which a configuration stops.
+   *
+   * @param winRate The margin of each seat's win rate.
+   * @param turns The margin of the mean number of turns per game.
+   * @param reshuffles The margin of the mean number of reshuffles per game.
+   */
+  public void setMargins(double winRate, double turns, double reshuffles) {
+    this.winRateMargin = winRate;
+    this.turnsMargin = turns;
+    this.reshufflesMargin = reshuffles;
+  }
+
+  /**
+   * Analyzes every number of players from 2 to 4 with each of the given wild ranks.
+   */
+  public ArrayList<Analysis> sweep(Rank... wildRanks) {
+    ArrayList<Analysis> analyses = new ArrayList<Analysis>();
+    for (Rank wildRank : wildRanks) {
+      for (int amountOfPlayers = 2; amountOfPlayers <= 4; amountOfPlayers++) {
+        analyses.add(analyze(amountOfPlayers, wildRank));
+      }
+    }
+    return analyses;
+  }
+
+  /**
+   * Plays games with the given number of players and wild rank until every interval is within its
+   * margin or the games run out.
+   */
+  public Analysis analyze(int amountOfPlayers, Rank wildRank) {
+    EightsSimulation simulation =
+        new EightsSimulation(amountOfPlayers, new MatchTable(wildRank), seed);
+    SimulationResult result = new SimulationResult(amountOfPlayers);
+    // Every seat's win rate, the game length and the reshuffles.
+    int measures = amountOfPlayers + 2;
+    long games = 0;
+    long next = Math.min(FIRST_LOOK, maxGames);
+    for (int look = 1;; look++) {
+      result.merge(simulation.run(games, next, threads));
+      games = next;
+      double z = -lowerQuantile(ALPHA / ((double) look * (look + 1)) / measures / 2);
+      Analysis analysis = new Analysis(wildRank, result, z, look);
+      if (analysis.isWithin(winRateMargin, turnsMargin, reshufflesMargin) || games >= maxGames) {
+        return analysis;
+      }
+      next = Math.min(2 * games, maxGames);
+    }
+  }
+
+  /**
+   * Returns the value a standard normal variable falls below with the given small probability,
+   * by Acklam's rational approximation for the lower tail, accurate to about 1e-9 for
+   * probabilities below 0.02425.
+   */
+  private static double lowerQuantile(double p) {
+    double q = Math.sqrt(-2 * Math.log(p));
+    return (((((-7.784894002430293e-03 * q - 3.223964580411365e-01) * q - 2.400758277161838e+00)
+        * q - 2.549732539343734e+00) * q + 4.374664141464968e+00) * q + 2.938163982698783e+00)
+        / ((((7.784695709041462e-03 * q + 3.224671290700398e-01) * q + 2.445134137142996e+00)
+            * q + 3.754408661907416e+00) * q + 1);
+  }
+
+  /**
+   * The measures of one configuration, with intervals wide enough for the look they stopped at.
+   */
+  public static class Analysis {
+
+    private Rank wildRank;
+    private SimulationResult result;
+    private double z;
+    private int looks;
+
+    Analysis(Rank wildRank, SimulationResult result, double z, int looks) {
+      this.wildRank = wildRank;
+      this.result = result;
+      this.z = z;
+      this.looks = looks;
+    }
+
+    /**
+     * Returns the wild rank of the games.
+     */
+    public Rank getWildRank() {
+      return wildRank;
+    }
+
+    /**
+     * Returns the totals of every game played.
+     */
+    public SimulationResult getResult() {
+      return result;
+    }
+
+    /**
+     * Returns the number of looks taken before stopping.
+     */
+    public int getLooks() {
+      return looks;
+    }
+
+    /**
+     * Returns how much more often than an equal share the given seat wins; seat 0 moves first.
+     */
+    public double getSeatAdvantage(int seat) {
+      return result.getWinRate(seat) - 1.0 / result.getAmountOfPlayers();
+    }
+
+    /**
+     * Returns the half-width of the confidence interval of the given seat's win rate.
+     */
+    public double getWinRateError(int seat) {
+      double rate = result.getWinRate(seat);
+      return z * Math.sqrt(rate * (1 - rate) / result.getGames());
+    }
+
+    /**
+     * Returns the half-width of the confidence interval of the mean number of turns.
+     */
+    public double getTurnsError() {
+      return z * result.getTurnsDeviation() / Math.sqrt(result.getGames());
+    }
+
+    /**
+     * Returns the half-width of the confidence interval of the mean number of reshuffles.
+     */
+    public double getReshufflesError() {
+      return z * result.getReshufflesDeviation() / Math.sqrt(result.getGames());
+    }
+
+    /**
+     * True if every interval is within the given margins.
+     */
+    public boolean isWithin(double winRateMargin, double turnsMargin, double reshufflesMargin) {
+      for (int seat = 0; seat < result.getAmountOfPlayers(); seat++) {
+        if (getWinRateError(seat) > winRateMargin) {
+          return false;
+        }
+      }
+      return getTurnsError() <= turnsMargin && getReshufflesError() <= reshufflesMargin;
+    }
+
+    /**
+     * Returns a String representation of the measures and their intervals.
+     */
+    public String toString() {
+      StringBuilder text = new StringBuilder();
+      text.append(String.format("%d players, %s wild: %d games in %d looks",
+          result.getAmountOfPlayers(), wildRank, result.getGames(), looks));
+      for (int seat = 0; seat < result.getAmountOfPlayers(); seat++) {
+        text.append(String.format("%n  Seat %d wins %.2f%% +/- %.2f, advantage %+.2f", seat + 1,
+            100.0 * result.getWinRate(seat), 100.0 * getWinRateError(seat),
+            100.0 * getSeatAdvantage(seat)));
+      }
+      text.append(String.format("%n  Turns %.2f +/- %.2f, reshuffles %.4f +/- %.4f",
+          result.getAverageTurns(), getTurnsError(), result.getAverageReshuffles(),
+          getReshufflesError()));
+      return text.toString();
+    }
+  }
+}
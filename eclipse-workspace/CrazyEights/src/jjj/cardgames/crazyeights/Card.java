@@ -2,17 +2,65 @@ package jjj.cardgames.crazyeights;
 
 /**
  * A single playing card.
+ *
+ * Cards are flyweights: there is exactly one instance for each rank and suit, obtained through
+ * {@link #of(Rank, Suit)} or {@link #of(int)}. Each card carries a dense id between 0 and 51 so
+ * that decks, hands and the GUI can share instances and index arrays by card.
+ *
  * @author Joshua Hardman
  *
  */
 public class Card {
 
-  Rank rank;
-  Suit suit;
+  /**
+   * The number of distinct cards in a standard deck.
+   */
+  public static final int DECK_SIZE = 52;
+
+  // The number of ranks in each suit.
+  private static final int RANK_COUNT = Rank.values().length;
+  // The canonical card instances, indexed by id.
+  private static final Card[] CARDS = new Card[DECK_SIZE];
+
+  static {
+    for (Suit suit : Suit.values()) {
+      for (Rank rank : Rank.values()) {
+        Card card = new Card(rank, suit);
+        CARDS[card.id] = card;
+      }
+    }
+  }
+
+  private final Rank rank;
+  private final Suit suit;
+  private final int id;
 
-  public Card(Rank rank, Suit suit) {
+  private Card(Rank rank, Suit suit) {
     this.rank = rank;
     this.suit = suit;
+    this.id = id(rank, suit);
+  }
+
+  /**
+   * Returns the canonical card with the given rank and suit.
+   */
+  public static Card of(Rank rank, Suit suit) {
+    return CARDS[id(rank, suit)];
+  }
+
+  /**
+   * Returns the canonical card with the given id.
+   */
+  public static Card of(int id) {
+    return CARDS[id];
+  }
+
+  /**
+   * Returns the id of the card with the given rank and suit. Ids follow deck order: suit by suit,
+   * ace to king.
+   */
+  public static int id(Rank rank, Suit suit) {
+    return suit.ordinal() * RANK_COUNT + rank.ordinal();
   }
 
   /**
@@ -29,6 +77,13 @@ public class Card {
     return suit;
   }
 
+  /**
+   * Returns the card id, between 0 and 51.
+   */
+  public int getId() {
+    return id;
+  }
+
   /**
    * Returns a String representation of the card.
    */
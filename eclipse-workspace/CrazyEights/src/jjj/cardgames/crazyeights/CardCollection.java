@@ -1,26 +1,28 @@
 package jjj.cardgames.crazyeights;
 
 import java.util.ArrayList;
-import java.util.Random;
 
 /**
  * A collection of playing cards.
+ *
+ * Subclasses choose how the cards are stored: a {@link CardList} or {@link CardStack} keeps them
+ * in an order of their own, which can be shuffled, while a {@link CardMask} keeps them sorted by
+ * id. The methods here are written in terms of indexing, adding and removing, and subclasses
+ * override those their storage does faster.
+ *
  * @author Joshua Hardman
  *
  */
-public class CardCollection {
+public abstract class CardCollection {
 
   //Provides a name to signify the type of card collection.
   private String label;
-  //Stores the cards in the card collection.
-  private ArrayList<Card> cards;
 
   /**
    * Constructs an empty collection.
    */
-  public CardCollection(String label) {
+  protected CardCollection(String label) {
     this.label = label;
-    this.cards = new ArrayList<Card>();
   }
 
   /**
@@ -31,83 +33,124 @@ public class CardCollection {
   }
 
   /**
-   * Returns the cards ArrayList.
+   * Returns the card with the given index.
+   */
+  public abstract Card getCard(int card);
+
+  /**
+   * Adds the given card to the collection.
+   */
+  public abstract void addCard(Card card);
+
+  /**
+   * Removes and returns the card with the given index.
+   */
+  public abstract Card popCard(int i);
+
+  /**
+   * Returns the number of cards.
+   */
+  public abstract int size();
+
+  /**
+   * Removes every card.
+   */
+  public abstract void clear();
+
+  /**
+   * Returns a list of the cards in index order.
    */
   public ArrayList<Card> getCards() {
+    ArrayList<Card> cards = new ArrayList<Card>(size());
+    for (int i = 0; i < size(); i++) {
+      cards.add(getCard(i));
+    }
     return cards;
   }
 
   /**
-   * Returns the card with the given index.
+   * Returns the card within the collection with given rank and suit.
    */
-  public Card getCard(int card) {
-    return cards.get(card);
+  public Card getCard(Rank rank, Suit suit) {
+    Card card = Card.of(rank, suit);
+    return contains(card) ? card : null;
   }
 
   /**
-   * Returns the card within the collection with given rank and suit.
+   * Returns the card's index within the collection.
    */
-  public Card getCard(Rank rank, Suit suit) {
-    for (Card card : cards) {
-      if (card.getRank() == rank && card.getSuit() == suit) {
-        return card;
+  public int getCardIndex(Card card) {
+    for (int i = 0; i < size(); i++) {
+      if (getCard(i) == card) {
+        return i;
       }
     }
-    return null;
+    return -1;
   }
-  
+
   /**
-   * Returns the card's index within the collection.
+   * True if the collection holds the given card, false otherwise.
    */
-  public int getCardIndex(Card card) {
-    return cards.indexOf(card);
+  public boolean contains(Card card) {
+    return getCardIndex(card) >= 0;
   }
 
   /**
-   * Adds the given card to the collection.
+   * Returns a 64-bit mask with the bit of each held card's id set.
    */
-  public void addCard(Card card) {
-    cards.add(card);
+  public long getMask() {
+    long mask = 0L;
+    for (int i = 0; i < size(); i++) {
+      mask |= 1L << getCard(i).getId();
+    }
+    return mask;
   }
 
   /**
-   * Removes and returns the card with the given index.
+   * Returns the index of the first card whose bit is set in the given mask, or -1 if none is.
    */
-  public Card popCard(int i) {
-    return cards.remove(i);
+  public int firstIndexIn(long mask) {
+    for (int i = 0; i < size(); i++) {
+      if ((mask & (1L << getCard(i).getId())) != 0) {
+        return i;
+      }
+    }
+    return -1;
   }
 
   /**
-   * Removes and returns the last card.
+   * Removes the given card, returning true if it was held.
    */
-  public Card popCard() {
-    int i = size() - 1;
-    return popCard(i);
+  public boolean removeCard(Card card) {
+    int i = getCardIndex(card);
+    if (i < 0) {
+      return false;
+    }
+    popCard(i);
+    return true;
   }
 
   /**
-   * Returns the number of cards.
+   * Removes and returns the last card.
    */
-  public int size() {
-    return cards.size();
+  public Card popCard() {
+    int i = size() - 1;
+    return popCard(i);
   }
 
   /**
    * True if the collection is empty, false otherwise.
    */
   public boolean empty() {
-    return cards.size() == 0;
+    return size() == 0;
   }
 
   /**
    * Returns a 52-card deck of cards
    */
   public void deck() {
-    for (Suit suit : Suit.values()) {
-      for (Rank rank : Rank.values()) {
-
-        addCard(new Card(rank, suit));
-      }
+    for (int id = 0; id < Card.DECK_SIZE; id++) {
+      addCard(Card.of(id));
     }
   }
 
@@ -129,40 +172,19 @@ public class CardCollection {
     deal(that, n);
   }
 
-
   /**
    * Returns the last card.
    */
   public Card last() {
     int i = size() - 1;
-    return cards.get(i);
-  }
-
-  /**
-   * Swaps the cards at indexes i and j.
-   */
-  public void swapCards(int i, int j) {
-    Card temp = cards.get(i);
-    cards.set(i, cards.get(j));
-    cards.set(j, temp);
-  }
-
-  /**
-   * Randomly permutes the cards.
-   */
-  public void shuffle() {
-    Random random = new Random();
-    for (int i = size() - 1; i > 0; i--) {
-      int j = random.nextInt(i);
-      swapCards(i, j);
-    }
+    return getCard(i);
   }
 
   /**
    * Returns a string representation of the card collection.
    */
   public String toString() {
-    return label + ": " + cards.toString();
+    return label + ": " + getCards().toString();
   }
 
   /**
@@ -170,7 +192,7 @@ public class CardCollection {
    */
   public void display() {
     System.out.println(label + ": ");
-    for (Card card : cards) {
+    for (Card card : getCards()) {
       System.out.println(card);
     }
     System.out.println();
@@ -0,0 +1,143 @@
+package jjj.cardgames.crazyeights;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.imageio.ImageIO;
+
+/**
+ * The card images of the program, each decoded once and shared by every panel and game.
+ *
+ * {@link #load()} starts decoding the 52 faces and the back in parallel on background threads and
+ * returns at once, so the work overlaps whatever the program shows first. Asking for an image
+ * waits for the decoding to finish if it has not yet.
+ *
+ * @author Joshua Hardman
+ *
+ */
+public class CardImageRepository {
+
+  // The id under which the back of the cards is held, after the 52 faces.
+  private static final int BACK = Card.DECK_SIZE;
+  // The letters of the suits in the image file names, in suit order.
+  private static final String SUIT_LETTERS = "cdhs";
+
+  private static final CardImageRepository INSTANCE = new CardImageRepository();
+
+  private BufferedImage[] images;
+  private Future<?>[] decodes;
+  private long start;
+  private AtomicLong finish;
+
+  private CardImageRepository() {
+    images = new BufferedImage[Card.DECK_SIZE + 1];
+    finish = new AtomicLong();
+  }
+
+  /**
+   * Returns the one repository of the program.
+   */
+  public static CardImageRepository getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Starts decoding every image in the background, unless already started.
+   */
+  public synchronized void load() {
+    if (decodes != null) {
+      return;
+    }
+    ExecutorService pool = Executors.newFixedThreadPool(
+        Runtime.getRuntime().availableProcessors(), runnable -> {
+          Thread thread = new Thread(runnable, "card-image-decoder");
+          thread.setDaemon(true);
+          return thread;
+        });
+    start = System.nanoTime();
+    decodes = new Future<?>[images.length];
+    for (int i = 0; i < images.length; i++) {
+      int id = i;
+      decodes[i] = pool.submit(() -> decode(id));
+    }
+    pool.shutdown();
+  }
+
+  /**
+   * Returns the face of the card with the given id, waiting for it to be decoded.
+   */
+  public BufferedImage getImage(int id) {
+    await();
+    return images[id];
+  }
+
+  /**
+   * Returns the face of the card with the given rank and suit, waiting for it to be decoded.
+   */
+  public BufferedImage getImage(Rank rank, Suit suit) {
+    return getImage(Card.id(rank, suit));
+  }
+
+  /**
+   * Returns the back of the cards, waiting for it to be decoded.
+   */
+  public BufferedImage getBackImage() {
+    await();
+    return images[BACK];
+  }
+
+  /**
+   * Returns the time in milliseconds from starting the decoding to the last image being decoded,
+   * waiting for that if need be.
+   */
+  public double getDecodeTime() {
+    await();
+    return (finish.get() - start) / 1e6;
+  }
+
+  /**
+   * Starts the decoding if need be and waits for it to finish.
+   *
+   * @throws IllegalStateException If an image could not be decoded.
+   */
+  private void await() {
+    load();
+    try {
+      for (Future<?> decode : decodes) {
+        decode.get();
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException ex) {
+      throw new IllegalStateException("Card image failed to decode", ex.getCause());
+    }
+  }
+
+  /**
+   * Decodes the image with the given id, notes when it finished and returns it.
+   */
+  private BufferedImage decode(int id) throws IOException {
+    String name = "b.gif";
+    if (id != BACK) {
+      Card card = Card.of(id);
+      name = String.format("%02d%c.gif", card.getRank().ordinal() + 1,
+          SUIT_LETTERS.charAt(card.getSuit().ordinal()));
+    }
+    InputStream inputStream = ClassLoader.getSystemResourceAsStream(name);
+    if (inputStream == null) {
+      throw new IOException("Missing card image " + name);
+    }
+    try {
+      images[id] = ImageIO.read(inputStream);
+    } finally {
+      inputStream.close();
+    }
+    finish.accumulateAndGet(System.nanoTime(), Math::max);
+    return images[id];
+  }
+}
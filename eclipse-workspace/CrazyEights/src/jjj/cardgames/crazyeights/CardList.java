@@ -0,0 +1,95 @@
+package jjj.cardgames.crazyeights;
+
+import java.util.ArrayList;
+
+/**
+ * A pile of playing cards stored in an ArrayList, in the order they were added.
+ *
+ * @author Joshua Hardman
+ *
+ */
+public class CardList extends CardPile {
+
+  //Stores the cards in the card collection.
+  private ArrayList<Card> cards;
+
+  /**
+   * Constructs an empty collection.
+   */
+  public CardList(String label) {
+    super(label);
+    this.cards = new ArrayList<Card>();
+  }
+
+  /**
+   * Returns the cards ArrayList.
+   */
+  public ArrayList<Card> getCards() {
+    return cards;
+  }
+
+  /**
+   * Returns the card with the given index.
+   */
+  public Card getCard(int card) {
+    return cards.get(card);
+  }
+
+  /**
+   * Returns the card's index within the collection.
+   */
+  public int getCardIndex(Card card) {
+    return cards.indexOf(card);
+  }
+
+  /**
+   * True if the collection holds the given card, false otherwise.
+   */
+  public boolean contains(Card card) {
+    return cards.contains(card);
+  }
+
+  /**
+   * Adds the given card to the collection.
+   */
+  public void addCard(Card card) {
+    cards.add(card);
+  }
+
+  /**
+   * Removes and returns the card with the given index.
+   */
+  public Card popCard(int i) {
+    return cards.remove(i);
+  }
+
+  /**
+   * Removes the given card, returning true if it was held.
+   */
+  public boolean removeCard(Card card) {
+    return cards.remove(card);
+  }
+
+  /**
+   * Returns the number of cards.
+   */
+  public int size() {
+    return cards.size();
+  }
+
+  /**
+   * Removes every card.
+   */
+  public void clear() {
+    cards.clear();
+  }
+
+  /**
+   * Swaps the cards at indexes i and j.
+   */
+  public void swapCards(int i, int j) {
+    Card temp = cards.get(i);
+    cards.set(i, cards.get(j));
+    cards.set(j, temp);
+  }
+}
@@ -0,0 +1,209 @@
+package jjj.cardgames.crazyeights;
+
+import java.util.ArrayList;
+
+/**
+ * A collection of playing cards stored as a 64-bit mask of card ids.
+ *
+ * Adding, removing and finding a card are single bit operations and the size is a popcount. The
+ * cards have no order of their own: indexes run from the lowest card id to the highest, which keeps
+ * a hand sorted by suit and rank. For the same reason a mask is not a {@link CardPile} and cannot
+ * be shuffled.
+ *
+ * @author Joshua Hardman
+ *
+ */
+public class CardMask extends CardCollection {
+
+  /**
+   * The mask with the bit of every card in the deck set.
+   */
+  public static final long DECK = (1L << Card.DECK_SIZE) - 1;
+
+  // The mask of the ace to king of the first suit.
+  private static final long SUIT = (1L << Rank.values().length) - 1;
+  // The mask of the ace of every suit.
+  private static final long RANK = 1L | 1L << Card.id(Rank.ACE, Suit.DIAMONDS)
+      | 1L << Card.id(Rank.ACE, Suit.HEARTS) | 1L << Card.id(Rank.ACE, Suit.SPADES);
+
+  // Stores the ids of the cards in the collection.
+  private long mask;
+
+  /**
+   * Constructs an empty collection.
+   */
+  public CardMask(String label) {
+    super(label);
+  }
+
+  /**
+   * Returns the mask of every card of the given suit.
+   */
+  public static long of(Suit suit) {
+    return SUIT << Card.id(Rank.ACE, suit);
+  }
+
+  /**
+   * Returns the mask of every card of the given rank.
+   */
+  public static long of(Rank rank) {
+    return RANK << rank.ordinal();
+  }
+
+  /**
+   * Returns a new list of the cards whose bits are set in the given mask, in id order.
+   */
+  public static ArrayList<Card> cards(long mask) {
+    ArrayList<Card> cards = new ArrayList<Card>(Long.bitCount(mask));
+    for (long bits = mask; bits != 0; bits &= bits - 1) {
+      cards.add(Card.of(Long.numberOfTrailingZeros(bits)));
+    }
+    return cards;
+  }
+
+  /**
+   * Returns a new list of the cards in id order.
+   */
+  public ArrayList<Card> getCards() {
+    return cards(mask);
+  }
+
+  /**
+   * Returns the card with the given index.
+   */
+  public Card getCard(int card) {
+    return Card.of(idAt(card));
+  }
+
+  /**
+   * Returns the card within the collection with given rank and suit.
+   */
+  public Card getCard(Rank rank, Suit suit) {
+    Card card = Card.of(rank, suit);
+    return contains(card) ? card : null;
+  }
+
+  /**
+   * Returns the card's index within the collection.
+   */
+  public int getCardIndex(Card card) {
+    if (!contains(card)) {
+      return -1;
+    }
+    return Long.bitCount(mask & ((1L << card.getId()) - 1));
+  }
+
+  /**
+   * True if the collection holds the given card, false otherwise.
+   */
+  public boolean contains(Card card) {
+    return (mask & (1L << card.getId())) != 0;
+  }
+
+  /**
+   * Returns a 64-bit mask with the bit of each held card's id set.
+   */
+  public long getMask() {
+    return mask;
+  }
+
+  /**
+   * Returns the index of the first card whose bit is set in the given mask, or -1 if none is.
+   */
+  public int firstIndexIn(long cards) {
+    long found = mask & cards;
+    if (found == 0) {
+      return -1;
+    }
+    return Long.bitCount(mask & ((found & -found) - 1));
+  }
+
+  /**
+   * Adds the given card to the collection.
+   */
+  public void addCard(Card card) {
+    mask |= 1L << card.getId();
+  }
+
+  /**
+   * Removes and returns the card with the given index.
+   */
+  public Card popCard(int i) {
+    int id = idAt(i);
+    mask &= ~(1L << id);
+    return Card.of(id);
+  }
+
+  /**
+   * Removes the given card, returning true if it was held.
+   */
+  public boolean removeCard(Card card) {
+    boolean held = contains(card);
+    mask &= ~(1L << card.getId());
+    return held;
+  }
+
+  /**
+   * Returns the number of cards.
+   */
+  public int size() {
+    return Long.bitCount(mask);
+  }
+
+  /**
+   * Removes every card.
+   */
+  public void clear() {
+    mask = 0L;
+  }
+
+  /**
+   * True if the collection is empty, false otherwise.
+   */
+  public boolean empty() {
+    return mask == 0;
+  }
+
+  /**
+   * Returns a 52-card deck of cards
+   */
+  public void deck() {
+    mask = DECK;
+  }
+
+  /**
+   * Moves all remaining cards to the given collection.
+   */
+  public void dealAll(CardCollection that) {
+    if (that instanceof CardMask) {
+      ((CardMask) that).mask |= mask;
+      mask = 0;
+    } else {
+      super.dealAll(that);
+    }
+  }
+
+  /**
+   * Returns the last card.
+   */
+  public Card last() {
+    if (mask == 0) {
+      throw new IndexOutOfBoundsException("Index: -1, Size: 0");
+    }
+    return Card.of(63 - Long.numberOfLeadingZeros(mask));
+  }
+
+  /**
+   * Returns the id of the card with the given index.
+   */
+  private int idAt(int i) {
+    if (i < 0 || i >= size()) {
+      throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size());
+    }
+    long bits = mask;
+    for (int n = 0; n < i; n++) {
+      bits &= bits - 1;
+    }
+    return Long.numberOfTrailingZeros(bits);
+  }
+}
@@ -0,0 +1,37 @@
+package jjj.cardgames.crazyeights;
+
+/**
+ * A collection of playing cards kept in an order of their own, such as a deck or a player's hand
+ * as dealt, which can be rearranged and shuffled.
+ *
+ * @author Joshua Hardman
+ *
+ */
+public abstract class CardPile extends CardCollection {
+
+  /**
+   * Constructs an empty pile.
+   */
+  protected CardPile(String label) {
+    super(label);
+  }
+
+  /**
+   * Swaps the cards at indexes i and j.
+   */
+  public abstract void swapCards(int i, int j);
+
+  /**
+   * Randomly permutes the cards using the calling thread's shuffler.
+   */
+  public void shuffle() {
+    shuffle(Shuffler.current());
+  }
+
+  /**
+   * Randomly permutes the cards using the given shuffler.
+   */
+  public void shuffle(Shuffler shuffler) {
+    shuffler.shuffle(this);
+  }
+}
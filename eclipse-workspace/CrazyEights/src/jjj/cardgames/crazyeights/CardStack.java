@@ -0,0 +1,240 @@
+package jjj.cardgames.crazyeights;
+
+import java.util.ArrayList;
+
+/**
+ * An ordered pile of playing cards stored as a primitive array of card ids.
+ *
+ * The last card is the top of the pile. Cards move between stacks in bulk with array copies, so
+ * dealing out the deck or returning the discards to the draw pile makes no per-card calls.
+ *
+ * @author Joshua Hardman
+ *
+ */
+public class CardStack extends CardPile {
+
+  // Stores the ids of the cards, bottom first.
+  private byte[] ids;
+  // The number of cards in the stack.
+  private int size;
+  // The ids of the cards in the stack as a mask.
+  private long mask;
+
+  /**
+   * Constructs an empty stack with room for a whole deck.
+   */
+  public CardStack(String label) {
+    super(label);
+    this.ids = new byte[Card.DECK_SIZE];
+  }
+
+  /**
+   * Returns a new list of the cards, bottom first.
+   */
+  public ArrayList<Card> getCards() {
+    ArrayList<Card> cards = new ArrayList<Card>(size);
+    for (int i = 0; i < size; i++) {
+      cards.add(Card.of(ids[i]));
+    }
+    return cards;
+  }
+
+  /**
+   * Returns the card with the given index.
+   */
+  public Card getCard(int card) {
+    checkIndex(card);
+    return Card.of(ids[card]);
+  }
+
+  /**
+   * Returns the card within the collection with given rank and suit.
+   */
+  public Card getCard(Rank rank, Suit suit) {
+    Card card = Card.of(rank, suit);
+    return contains(card) ? card : null;
+  }
+
+  /**
+   * Returns the card's index within the collection.
+   */
+  public int getCardIndex(Card card) {
+    if (contains(card)) {
+      for (int i = 0; i < size; i++) {
+        if (ids[i] == card.getId()) {
+          return i;
+        }
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * True if the collection holds the given card, false otherwise.
+   */
+  public boolean contains(Card card) {
+    return (mask & (1L << card.getId())) != 0;
+  }
+
+  /**
+   * Returns a 64-bit mask with the bit of each held card's id set.
+   */
+  public long getMask() {
+    return mask;
+  }
+
+  /**
+   * Returns the index of the first card whose bit is set in the given mask, or -1 if none is.
+   */
+  public int firstIndexIn(long cards) {
+    if ((mask & cards) != 0) {
+      for (int i = 0; i < size; i++) {
+        if ((cards & (1L << ids[i])) != 0) {
+          return i;
+        }
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Adds the given card to the top of the stack.
+   */
+  public void addCard(Card card) {
+    ids[size++] = (byte) card.getId();
+    mask |= 1L << card.getId();
+  }
+
+  /**
+   * Removes and returns the card with the given index.
+   */
+  public Card popCard(int i) {
+    checkIndex(i);
+    int id = ids[i];
+    System.arraycopy(ids, i + 1, ids, i, size - i - 1);
+    size--;
+    mask &= ~(1L << id);
+    return Card.of(id);
+  }
+
+  /**
+   * Removes the given card, returning true if it was held.
+   */
+  public boolean removeCard(Card card) {
+    int i = getCardIndex(card);
+    if (i < 0) {
+      return false;
+    }
+    popCard(i);
+    return true;
+  }
+
+  /**
+   * Returns the number of cards.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Removes every card.
+   */
+  public void clear() {
+    size = 0;
+    mask = 0L;
+  }
+
+  /**
+   * True if the collection is empty, false otherwise.
+   */
+  public boolean empty() {
+    return size == 0;
+  }
+
+  /**
+   * Returns a 52-card deck of cards
+   */
+  public void deck() {
+    for (int id = 0; id < Card.DECK_SIZE; id++) {
+      ids[id] = (byte) id;
+    }
+    size = Card.DECK_SIZE;
+    mask = CardMask.DECK;
+  }
+
+  /**
+   * Moves n cards from this collection to the given collection.
+   */
+  public void deal(CardCollection that, int n) {
+    if (!(that instanceof CardStack)) {
+      super.deal(that, n);
+      return;
+    }
+    if (n > size) {
+      throw new IndexOutOfBoundsException("Index: " + (size - n) + ", Size: " + size);
+    }
+    CardStack stack = (CardStack) that;
+    // Cards are dealt from the top one at a time, so they land on the other stack reversed.
+    for (int i = 0; i < n; i++) {
+      int id = ids[--size];
+      stack.ids[stack.size++] = (byte) id;
+      mask &= ~(1L << id);
+      stack.mask |= 1L << id;
+    }
+  }
+
+  /**
+   * Moves the bottom n cards of this stack, in order, onto the top of the given stack and closes
+   * the gap they leave. Used to return the discards to the draw pile in one copy.
+   */
+  public void moveBottomTo(CardStack that, int n) {
+    if (n > size) {
+      throw new IndexOutOfBoundsException("Index: " + n + ", Size: " + size);
+    }
+    System.arraycopy(ids, 0, that.ids, that.size, n);
+    that.size += n;
+    System.arraycopy(ids, n, ids, 0, size - n);
+    size -= n;
+    // Few cards remain, so the mask is rebuilt from them rather than from the moved ones.
+    long moved = mask;
+    mask = 0L;
+    for (int i = 0; i < size; i++) {
+      mask |= 1L << ids[i];
+    }
+    that.mask |= moved & ~mask;
+  }
+
+  /**
+   * Returns the last card.
+   */
+  public Card last() {
+    return getCard(size - 1);
+  }
+
+  /**
+   * Swaps the cards at indexes i and j.
+   */
+  public void swapCards(int i, int j) {
+    checkIndex(i);
+    checkIndex(j);
+    byte temp = ids[i];
+    ids[i] = ids[j];
+    ids[j] = temp;
+  }
+
+  /**
+   * Randomly permutes the cards in place using the given shuffler.
+   */
+  public void shuffle(Shuffler shuffler) {
+    shuffler.shuffle(ids, 0, size);
+  }
+
+  /**
+   * Throws an exception if the index is outside the stack.
+   */
+  private void checkIndex(int i) {
+    if (i < 0 || i >= size) {
+      throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size);
+    }
+  }
+}
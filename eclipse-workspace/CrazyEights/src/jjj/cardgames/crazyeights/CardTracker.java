@@ -0,0 +1,240 @@
+package jjj.cardgames.crazyeights;
+
+/**
+ * What one player knows about where the cards are, kept up to date as cards are played, drawn and
+ * reshuffled rather than worked out again from the piles at every decision.
+ *
+ * Besides the cards this player can't see, the tracker keeps for each opponent the cards they
+ * can't be holding. An opponent who has to draw holds no card playable on the card to match, and
+ * every card they draw before the one they can play is unplayable too, so a forced draw on a heart
+ * shows they hold no hearts, no cards of its rank and no eights until they draw again. When there
+ * are only as many cards an opponent could hold as cards in their hand, those cards are known.
+ *
+ * @author Joshua Hardman
+ *
+ */
+public class CardTracker {
+
+  private MatchTable matchTable;
+  private int seat;
+  private long hand;
+  private long discards;
+  private int cardToMatch;
+  private long unseen;
+  private int drawPileSize;
+  private int[] handSizes;
+  // The cards each player is known not to hold.
+  private long[] excluded;
+  // Whether each player has drawn since they last played.
+  private boolean[] drawing;
+
+  /**
+   * Starts tracking a game for the player with the given index, from what they can see of it.
+   *
+   * @param hand This player's hand.
+   * @param discards The mask of the discard pile, including the top card.
+   * @param cardToMatch The card on top of the discard pile.
+   * @param handSizes The number of cards held by each player.
+   * @param drawPileSize The number of cards in the draw pile.
+   */
+  public CardTracker(int seat, MatchTable matchTable, long hand, long discards, Card cardToMatch,
+      int[] handSizes, int drawPileSize) {
+    this.matchTable = matchTable;
+    this.seat = seat;
+    this.handSizes = new int[handSizes.length];
+    this.excluded = new long[handSizes.length];
+    this.drawing = new boolean[handSizes.length];
+    restart(hand, discards, cardToMatch, handSizes, drawPileSize);
+  }
+
+  /**
+   * Forgets everything and starts tracking a new game, as the constructor does.
+   */
+  void restart(long hand, long discards, Card cardToMatch, int[] handSizes, int drawPileSize) {
+    this.hand = hand;
+    this.discards = discards;
+    this.cardToMatch = cardToMatch.getId();
+    this.unseen = CardMask.DECK & ~hand & ~discards;
+    System.arraycopy(handSizes, 0, this.handSizes, 0, handSizes.length);
+    this.drawPileSize = drawPileSize;
+    for (int i = 0; i < excluded.length; i++) {
+      excluded[i] = 0L;
+      drawing[i] = false;
+    }
+  }
+
+  /**
+   * Records the given player playing the given card onto the discard pile.
+   */
+  void played(int player, int card) {
+    long bit = 1L << card;
+    if (player == seat) {
+      hand &= ~bit;
+    }
+    unseen &= ~bit;
+    discards |= bit;
+    cardToMatch = card;
+    handSizes[player]--;
+    drawing[player] = false;
+  }
+
+  /**
+   * Records the given player drawing the given card because they couldn't play. The card is seen
+   * only if this tracker is theirs.
+   */
+  void drew(int player, int card) {
+    if (player == seat) {
+      hand |= 1L << card;
+      unseen &= ~(1L << card);
+    } else {
+      long playable = matchTable.getPlayable(Card.of(cardToMatch));
+      // A card drawn before another was unplayable, so it may be anything else; the card they play
+      // next is the one they just drew and leaves them holding nothing playable again.
+      excluded[player] = drawing[player] ? playable : excluded[player] | playable;
+    }
+    drawing[player] = true;
+    handSizes[player]++;
+    drawPileSize--;
+  }
+
+  /**
+   * Records the discard pile, all but its top card, being shuffled into the draw pile.
+   */
+  void reshuffled() {
+    long bit = 1L << cardToMatch;
+    unseen |= discards & ~bit;
+    drawPileSize += Long.bitCount(discards) - 1;
+    discards = bit;
+  }
+
+  /**
+   * Returns the index of the player whose knowledge this is.
+   */
+  public int getSeat() {
+    return seat;
+  }
+
+  /**
+   * Returns the mask of the cards this player can't see, held by opponents or in the draw pile.
+   */
+  public long getUnseen() {
+    return unseen;
+  }
+
+  /**
+   * Returns the number of cards held by the player with the given index.
+   */
+  public int getHandSize(int player) {
+    return handSizes[player];
+  }
+
+  /**
+   * Returns the number of cards in the draw pile.
+   */
+  public int getDrawPileSize() {
+    return drawPileSize;
+  }
+
+  /**
+   * Returns the mask of the cards the given opponent is known not to hold.
+   */
+  public long getExcluded(int player) {
+    return excluded[player];
+  }
+
+  /**
+   * True if the given opponent is known to hold no cards of the given suit.
+   */
+  public boolean isVoid(int player, Suit suit) {
+    long suitCards = CardMask.of(suit);
+    return (suitCards & unseen & ~excluded[player]) == 0;
+  }
+
+  /**
+   * Returns the mask of the cards the given opponent could be holding.
+   */
+  public long getPossible(int player) {
+    return player == seat ? hand : unseen & ~excluded[player];
+  }
+
+  /**
+   * Returns the mask of the cards the given opponent is known to hold: those they could hold if
+   * there are just enough for their hand, or those nobody else could hold once the draw pile is
+   * empty.
+   */
+  public long getKnown(int player) {
+    long possible = getPossible(player);
+    if (player == seat || Long.bitCount(possible) == handSizes[player]) {
+      return possible;
+    }
+    if (drawPileSize > 0) {
+      return 0L;
+    }
+    long elsewhere = 0L;
+    for (int i = 0; i < handSizes.length; i++) {
+      if (i != player && i != seat) {
+        elsewhere |= getPossible(i);
+      }
+    }
+    return possible & ~elsewhere;
+  }
+
+  /**
+   * Deals the given unseen card ids, in the order given, to the opponents' hands so that each gets
+   * only cards they could hold, and copies the ids left over to the draw pile array.
+   *
+   * @param ids The ids of every unseen card, shuffled.
+   * @param hands Receives every player's hand; this player's is their own.
+   * @param drawPile Receives the ids left for the draw pile, in the order given.
+   * @return The number of ids left for the draw pile.
+   */
+  public int deal(byte[] ids, long[] hands, byte[] drawPile) {
+    int n = Long.bitCount(unseen);
+    if (!deal(ids, n, hands, true)) {
+      // The opponents took cards in an order which left one short, so deal without the limits.
+      deal(ids, n, hands, false);
+    }
+    long dealt = 0L;
+    for (long h : hands) {
+      dealt |= h;
+    }
+    int rest = 0;
+    for (int i = 0; i < n; i++) {
+      if ((dealt & (1L << ids[i])) == 0) {
+        drawPile[rest++] = ids[i];
+      }
+    }
+    return rest;
+  }
+
+  /**
+   * Deals the first n ids to the opponents, each taking the first they could hold.
+   *
+   * @return False if an opponent ran out of cards they could hold.
+   */
+  private boolean deal(byte[] ids, int n, long[] hands, boolean limited) {
+    long taken = 0L;
+    for (int player = 0; player < hands.length; player++) {
+      if (player == seat) {
+        hands[player] = hand;
+        continue;
+      }
+      long allowed = limited ? getPossible(player) : unseen;
+      long dealt = 0L;
+      int need = handSizes[player];
+      for (int i = 0; i < n && need > 0; i++) {
+        long bit = 1L << ids[i];
+        if ((allowed & bit & ~taken) != 0) {
+          dealt |= bit;
+          taken |= bit;
+          need--;
+        }
+      }
+      if (need > 0) {
+        return false;
+      }
+      hands[player] = dealt;
+    }
+    return true;
+  }
+}
@@ -0,0 +1,191 @@
+package jjj.cardgames.crazyeights;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A file of fixed deals, read through memory maps so any deal can be fetched without reading the
+ * rest, for reproducible comparisons between strategies and between versions of the engine.
+ *
+ * The file starts with a header of {@link #HEADER_BYTES} bytes: the magic number, the format
+ * version and the number of deals. Each deal follows as the {@link PermutationCode} rank of its
+ * deck order, bottom card first, as a shuffled deck is laid out before {@link EightsLogic} deals
+ * it. Every record is the same size, so the offset of deal n is its own index and a million deals
+ * take under 28 MB.
+ *
+ * Reads use absolute positions in the maps and never change shared state, so one library can be
+ * read by any number of threads.
+ *
+ * @author Joshua Hardman
+ *
+ */
+public class DealLibrary implements Closeable {
+
+  /**
+   * The number of bytes before the first deal.
+   */
+  public static final int HEADER_BYTES = 16;
+
+  private static final int MAGIC = 0x43384431;
+  private static final int VERSION = 1;
+  // Deals per memory map, keeping each map under the 2 GB a buffer can address.
+  private static final int DEALS_PER_MAP = 1 << 26;
+
+  private FileChannel channel;
+  private MappedByteBuffer[] maps;
+  private long size;
+
+  /**
+   * Opens the library in the given file for reading.
+   *
+   * @throws IOException If the file can't be read or isn't a deal library.
+   */
+  public DealLibrary(Path file) throws IOException {
+    channel = FileChannel.open(file, StandardOpenOption.READ);
+    try {
+      if (channel.size() < HEADER_BYTES) {
+        throw new IOException(file + " is not a deal library");
+      }
+      ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+      if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+        throw new IOException(file + " is not a deal library");
+      }
+      size = header.getLong();
+      if (channel.size() < HEADER_BYTES + size * PermutationCode.BYTES) {
+        throw new IOException(file + " holds fewer deals than its header says");
+      }
+      maps = new MappedByteBuffer[(int) ((size + DEALS_PER_MAP - 1) / DEALS_PER_MAP)];
+      for (int m = 0; m < maps.length; m++) {
+        long first = (long) m * DEALS_PER_MAP;
+        long deals = Math.min(DEALS_PER_MAP, size - first);
+        maps[m] = channel.map(FileChannel.MapMode.READ_ONLY,
+            HEADER_BYTES + first * PermutationCode.BYTES, deals * PermutationCode.BYTES);
+      }
+    } catch (IOException ex) {
+      channel.close();
+      throw ex;
+    }
+  }
+
+  /**
+   * Returns the number of deals in the library.
+   */
+  public long size() {
+    return size;
+  }
+
+  /**
+   * Writes the deck order of the deal with the given index to the given array, bottom card first.
+   * The rank is read straight from the map, so reusing the array allocates nothing.
+   */
+  public void getDeal(long index, byte[] order) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Deal " + index + " of " + size);
+    }
+    MappedByteBuffer map = maps[(int) (index / DEALS_PER_MAP)];
+    int position = (int) (index % DEALS_PER_MAP) * PermutationCode.BYTES;
+    PermutationCode.decode(map, position, order, 0);
+  }
+
+  /**
+   * Returns the deck order of the deal with the given index, bottom card first.
+   */
+  public byte[] getDeal(long index) {
+    byte[] order = new byte[Card.DECK_SIZE];
+    getDeal(index, order);
+    return order;
+  }
+
+  /**
+   * Closes the file. The maps stay valid until they are garbage collected.
+   */
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  /**
+   * Writes the given number of deals to the given file, deal n being the deck order shuffled from
+   * stream n of the seed. Only the deal is stored: played with reshuffles from a fresh
+   * {@link Shuffler#forStream(long, long)} of the same seed and stream, as {@link Tournament}
+   * does, deal n replays game n of {@link EightsSimulation} exactly.
+   */
+  public static void write(Path file, long deals, long seed) throws IOException {
+    try (Writer writer = new Writer(file)) {
+      byte[] order = new byte[Card.DECK_SIZE];
+      for (long n = 0; n < deals; n++) {
+        Shuffler.forStream(seed, n).permutations(order);
+        writer.add(order);
+      }
+    }
+  }
+
+  /**
+   * Writes deals to a new library file, filling in the count when closed.
+   */
+  public static class Writer implements Closeable {
+
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    private FileChannel channel;
+    private ByteBuffer buffer;
+    private byte[] code;
+    private long size;
+
+    /**
+     * Creates or replaces the given file with an empty library.
+     */
+    public Writer(Path file) throws IOException {
+      channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+          StandardOpenOption.TRUNCATE_EXISTING);
+      buffer = ByteBuffer.allocate(BUFFER_BYTES);
+      code = new byte[PermutationCode.BYTES];
+      buffer.position(HEADER_BYTES);
+    }
+
+    /**
+     * Appends the given deck order, bottom card first.
+     *
+     * @throws IllegalArgumentException If the order isn't of the whole deck.
+     */
+    public void add(byte[] order) throws IOException {
+      PermutationCode.encode(order, 0, code, 0);
+      if (buffer.remaining() < code.length) {
+        flush();
+      }
+      buffer.put(code);
+      size++;
+    }
+
+    /**
+     * Writes out the buffered deals and the header and closes the file.
+     */
+    public void close() throws IOException {
+      try {
+        flush();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC).putInt(VERSION).putLong(size).flip();
+        while (header.hasRemaining()) {
+          channel.write(header, header.position());
+        }
+      } finally {
+        channel.close();
+      }
+    }
+
+    /**
+     * Writes out the buffered bytes.
+     */
+    private void flush() throws IOException {
+      buffer.flip();
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      buffer.clear();
+    }
+  }
+}
@@ -1,17 +1,225 @@
 package jjj.cardgames.crazyeights;
 
+import java.io.IOException;
+import java.nio.file.Paths;
+
 /**
  * 
  * Contains the main method which boots the Crazy Eights program.
  * 
+ * Run with no arguments to open the game window, or with
+ * {@code --simulate <games> <players> [seed] [threads]} to play computer-only games without a GUI
+ * and report how fast they run, or with
+ * {@code --tournament <deals> <players> [seed] [threads] [entrants] [library]} to rate computer
+ * strategies against each other. Entrants are a comma-separated list of greedy, heuristic, endgame
+ * and mcts, and the deals are read from a library file if one is given.
+ * {@code --balance [seed] [threads] [wild ranks]} measures seat advantage, game length and
+ * reshuffles for 2 to 4 players with each of a comma-separated list of wild ranks, such as
+ * EIGHT,TWO. {@code --deals <library> <deals> [seed]} writes a library file of the deals
+ * {@code --simulate} would play.
+ *
  * @author Joshua Hardman
  *
  */
 public class Eights {
 
+  private static final String USAGE =
+      "Usage: Eights [--simulate <games> <players> [seed] [threads]]\n"
+          + "       Eights [--tournament <deals> <players> [seed] [threads] [entrants] [library]]\n"
+          + "       Eights [--balance [seed] [threads] [wild ranks]]\n"
+          + "       Eights [--deals <library> <deals> [seed]]";
+  // The most games the balance analysis plays for one configuration.
+  private static final long BALANCE_MAX_GAMES = 1L << 24;
+  private static final String DEFAULT_ENTRANTS = "greedy,heuristic,endgame";
+  // The thinking time per move of searching strategies in a tournament.
+  private static final long TOURNAMENT_MOVE_TIME = 10;
+
   public Eights() {}
 
   public static void main(String[] args) {
-    new GameWindow("Crazy Eights");
+    if (args.length > 0 && args[0].equals("--simulate")) {
+      simulate(args);
+    } else if (args.length > 0 && args[0].equals("--tournament")) {
+      tournament(args);
+    } else if (args.length > 0 && args[0].equals("--balance")) {
+      balance(args);
+    } else if (args.length > 0 && args[0].equals("--deals")) {
+      deals(args);
+    } else {
+      new GameWindow("Crazy Eights");
+    }
+  }
+
+  /**
+   * Plays the requested number of headless games across the available cores and prints the
+   * results and games per second.
+   */
+  public static void simulate(String[] args) {
+    long games;
+    int amountOfPlayers;
+    long seed;
+    int threads;
+    try {
+      games = Long.parseLong(args[1]);
+      amountOfPlayers = Integer.parseInt(args[2]);
+      seed = args.length > 3 ? Long.parseLong(args[3]) : System.nanoTime();
+      threads = args.length > 4 ? Integer.parseInt(args[4])
+          : Runtime.getRuntime().availableProcessors();
+    } catch (ArrayIndexOutOfBoundsException | NumberFormatException ex) {
+      System.err.println(USAGE);
+      return;
+    }
+    if (games < 1 || amountOfPlayers < 2 || amountOfPlayers > 4 || threads < 1) {
+      System.err.println(USAGE);
+      System.err.println("Games and threads must be positive and players between 2 and 4.");
+      return;
+    }
+
+    EightsSimulation simulation = new EightsSimulation(amountOfPlayers, seed);
+    long start = System.nanoTime();
+    SimulationResult result = simulation.run(games, threads);
+    double seconds = (System.nanoTime() - start) / 1e9;
+
+    System.out.println(result);
+    System.out.printf("Seed %d, %d threads: %.3f s (%.0f games/s)%n", seed, threads, seconds,
+        games / seconds);
+  }
+
+  /**
+   * Plays a duplicate tournament between the requested strategies across the available cores and
+   * prints each one's win rate and Elo rating.
+   */
+  public static void tournament(String[] args) {
+    long deals;
+    int amountOfPlayers;
+    long seed;
+    int threads;
+    String[] entrants;
+    try {
+      deals = Long.parseLong(args[1]);
+      amountOfPlayers = Integer.parseInt(args[2]);
+      seed = args.length > 3 ? Long.parseLong(args[3]) : System.nanoTime();
+      threads = args.length > 4 ? Integer.parseInt(args[4])
+          : Runtime.getRuntime().availableProcessors();
+      entrants = (args.length > 5 ? args[5] : DEFAULT_ENTRANTS).split(",");
+    } catch (ArrayIndexOutOfBoundsException | NumberFormatException ex) {
+      System.err.println(USAGE);
+      return;
+    }
+    if (deals < 2 || amountOfPlayers < 2 || amountOfPlayers > 4 || threads < 1
+        || entrants.length < amountOfPlayers) {
+      System.err.println(USAGE);
+      System.err.println("Deals must be at least 2, threads positive, players between 2 and 4 "
+          + "and entrants at least as many as players.");
+      return;
+    }
+
+    Tournament tournament = new Tournament(amountOfPlayers, seed);
+    for (String name : entrants) {
+      switch (name) {
+        case "greedy":
+          tournament.addEntrant(name, () -> new GreedyStrategy());
+          break;
+        case "heuristic":
+          tournament.addEntrant(name, () -> new HeuristicStrategy());
+          break;
+        case "endgame":
+          tournament.addEntrant(name,
+              () -> new EndgameStrategy(new HeuristicStrategy(), TOURNAMENT_MOVE_TIME));
+          break;
+        case "mcts":
+          tournament.addEntrant(name, () -> new MctsStrategy(TOURNAMENT_MOVE_TIME, 1));
+          break;
+        default:
+          System.err.println(USAGE);
+          System.err.println("Unknown entrant: " + name);
+          return;
+      }
+    }
+    long start = System.nanoTime();
+    TournamentResult result;
+    if (args.length > 6) {
+      try (DealLibrary library = new DealLibrary(Paths.get(args[6]))) {
+        tournament.setLibrary(library);
+        result = tournament.run(deals, threads);
+      } catch (IOException | IllegalArgumentException ex) {
+        System.err.println(ex.getMessage());
+        return;
+      }
+    } else {
+      result = tournament.run(deals, threads);
+    }
+    double seconds = (System.nanoTime() - start) / 1e9;
+
+    System.out.println(result);
+    System.out.printf("Seed %d, %d threads: %.3f s%n", seed, threads, seconds);
+  }
+
+  /**
+   * Sweeps the numbers of players and the requested wild ranks, playing each until its measures
+   * are known closely, and prints them.
+   */
+  public static void balance(String[] args) {
+    long seed;
+    int threads;
+    Rank[] wildRanks;
+    try {
+      seed = args.length > 1 ? Long.parseLong(args[1]) : System.nanoTime();
+      threads = args.length > 2 ? Integer.parseInt(args[2])
+          : Runtime.getRuntime().availableProcessors();
+      String[] names = (args.length > 3 ? args[3] : Rank.EIGHT.name()).split(",");
+      wildRanks = new Rank[names.length];
+      for (int i = 0; i < names.length; i++) {
+        wildRanks[i] = Rank.valueOf(names[i]);
+      }
+    } catch (IllegalArgumentException ex) {
+      System.err.println(USAGE);
+      return;
+    }
+    if (threads < 1) {
+      System.err.println(USAGE);
+      System.err.println("Threads must be positive.");
+      return;
+    }
+
+    BalanceAnalyzer analyzer = new BalanceAnalyzer(seed, threads, BALANCE_MAX_GAMES);
+    long start = System.nanoTime();
+    for (BalanceAnalyzer.Analysis analysis : analyzer.sweep(wildRanks)) {
+      System.out.println(analysis);
+    }
+    double seconds = (System.nanoTime() - start) / 1e9;
+    System.out.printf("Seed %d, %d threads: %.3f s%n", seed, threads, seconds);
+  }
+
+  /**
+   * Writes a library of the requested number of deals, deal n being the deal game n of a
+   * simulation with the same seed starts from.
+   */
+  public static void deals(String[] args) {
+    long deals;
+    long seed;
+    try {
+      deals = Long.parseLong(args[2]);
+      seed = args.length > 3 ? Long.parseLong(args[3]) : System.nanoTime();
+    } catch (ArrayIndexOutOfBoundsException | NumberFormatException ex) {
+      System.err.println(USAGE);
+      return;
+    }
+    if (deals < 1) {
+      System.err.println(USAGE);
+      System.err.println("Deals must be positive.");
+      return;
+    }
+
+    long start = System.nanoTime();
+    try {
+      DealLibrary.write(Paths.get(args[1]), deals, seed);
+    } catch (IOException ex) {
+      System.err.println(ex.getMessage());
+      return;
+    }
+    double seconds = (System.nanoTime() - start) / 1e9;
+    System.out.printf("Wrote %d deals of seed %d to %s in %.3f s%n", deals, seed, args[1],
+        seconds);
   }
 }
@@ -0,0 +1,275 @@
+package jjj.cardgames.crazyeights;
+
+/**
+ * Plays many independent games of Crazy Eights side by side, every player taking the first
+ * matching card as in {@link EightsLogic} without a strategy, under the rules of any
+ * {@link MatchTable}.
+ *
+ * The games are held as a structure of arrays indexed by game, with no object per game, and are
+ * advanced together one turn at a time. Each turn first works out the legal cards of every running
+ * game in one tight loop over the arrays, then plays or draws for each. Finished games drop out
+ * of the list of running games, so long games don't slow the turns of the rest.
+ *
+ * Game n of a batch is dealt and reshuffled from {@link Shuffler#forStream(long, long)}, exactly
+ * as in {@link EightsSimulation}, so a batch reproduces the same games.
+ *
+ * The batch has one rule {@link EightsLogic} lacks. A player with no legal card who finds the draw
+ * pile empty and nothing under the top discard to reshuffle passes, and a game in which every
+ * player passes in a row ends with {@link #NO_WINNER}. EightsLogic instead fails in
+ * {@link EightsLogic#draw()} once both piles are empty, so {@link EightsRunner} can't finish such
+ * a deal, though under the standard rules it hardly ever comes up.
+ *
+ * @author Joshua Hardman
+ *
+ */
+public class EightsBatch {
+
+  /**
+   * The winner of a game in which nobody could play or draw.
+   */
+  public static final int NO_WINNER = -1;
+
+  private static final int HAND_SIZE = 5;
+
+  private int games;
+  private int amountOfPlayers;
+  // The playable mask of each card to match.
+  private long[] playable;
+  private Shuffler[] shufflers;
+
+  // Hands indexed by game times players plus player; piles by game times 52 plus position.
+  private long[] hands;
+  private byte[] drawPiles;
+  private int[] drawPileSizes;
+  private byte[] discardPiles;
+  private int[] discardPileSizes;
+  private int[] seats;
+  private int[] winners;
+  private int[] passes;
+  private int[] turns;
+  private int[] draws;
+  private int[] reshuffles;
+
+  // The games still running, and the legal cards for the player to move in each.
+  private int[] running;
+  private int runningCount;
+  private long[] legal;
+
+  /**
+   * Constructs a batch of up to the given number of games with the given number of players.
+   */
+  public EightsBatch(int capacity, int amountOfPlayers) {
+    this(capacity, amountOfPlayers, MatchTable.STANDARD);
+  }
+
+  /**
+   * Constructs a batch of up to the given number of games with the given number of players, played
+   * by the rules of the given table.
+   */
+  public EightsBatch(int capacity, int amountOfPlayers, MatchTable matchTable) {
+    this.amountOfPlayers = amountOfPlayers;
+    this.playable = new long[Card.DECK_SIZE];
+    for (int id = 0; id < Card.DECK_SIZE; id++) {
+      playable[id] = matchTable.getPlayable(Card.of(id));
+    }
+    this.shufflers = new Shuffler[capacity];
+    this.hands = new long[capacity * amountOfPlayers];
+    this.drawPiles = new byte[capacity * Card.DECK_SIZE];
+    this.drawPileSizes = new int[capacity];
+    this.discardPiles = new byte[capacity * Card.DECK_SIZE];
+    this.discardPileSizes = new int[capacity];
+    this.seats = new int[capacity];
+    this.winners = new int[capacity];
+    this.passes = new int[capacity];
+    this.turns = new int[capacity];
+    this.draws = new int[capacity];
+    this.reshuffles = new int[capacity];
+    this.running = new int[capacity];
+    this.legal = new long[capacity];
+  }
+
+  /**
+   * Deals the given number of games, game g of the batch being game firstGame + g of the given
+   * seed.
+   */
+  public void deal(long seed, long firstGame, int games) {
+    if (games > running.length) {
+      throw new IllegalArgumentException("Batch holds at most " + running.length + " games");
+    }
+    this.games = games;
+    byte[] deck = new byte[Card.DECK_SIZE];
+    for (int g = 0; g < games; g++) {
+      Shuffler shuffler = Shuffler.forStream(seed, firstGame + g);
+      shufflers[g] = shuffler;
+      for (int id = 0; id < Card.DECK_SIZE; id++) {
+        deck[id] = (byte) id;
+      }
+      shuffler.shuffle(deck, 0, Card.DECK_SIZE);
+
+      // Deals from the top of the deck, the last card, as EightsLogic does.
+      int size = Card.DECK_SIZE;
+      int hand = g * amountOfPlayers;
+      for (int p = 0; p < amountOfPlayers; p++) {
+        hands[hand + p] = 0L;
+      }
+      for (int i = 0; i < HAND_SIZE; i++) {
+        for (int p = 0; p < amountOfPlayers; p++) {
+          hands[hand + p] |= 1L << deck[--size];
+        }
+      }
+      int pile = g * Card.DECK_SIZE;
+      discardPiles[pile] = deck[--size];
+      discardPileSizes[g] = 1;
+      // The rest are dealt one at a time onto the draw pile, so they land reversed.
+      for (int i = 0; i < size; i++) {
+        drawPiles[pile + i] = deck[size - 1 - i];
+      }
+      drawPileSizes[g] = size;
+
+      seats[g] = 0;
+      winners[g] = NO_WINNER;
+      passes[g] = 0;
+      turns[g] = 0;
+      draws[g] = 0;
+      reshuffles[g] = 0;
+      running[g] = g;
+    }
+    runningCount = games;
+  }
+
+  /**
+   * Plays one turn of every running game.
+   *
+   * @return The number of games still running.
+   */
+  public int step() {
+    // Finds the legal cards of every game at once.
+    for (int i = 0; i < runningCount; i++) {
+      int g = running[i];
+      int pile = g * Card.DECK_SIZE + discardPileSizes[g] - 1;
+      legal[g] = hands[g * amountOfPlayers + seats[g]] & playable[discardPiles[pile]];
+    }
+
+    for (int i = 0; i < runningCount; i++) {
+      int g = running[i];
+      int hand = g * amountOfPlayers + seats[g];
+      int card;
+      if (legal[g] != 0) {
+        card = Long.numberOfTrailingZeros(legal[g]);
+      } else {
+        card = drawForMatch(g, hand);
+      }
+      turns[g]++;
+      if (card >= 0) {
+        passes[g] = 0;
+        hands[hand] &= ~(1L << card);
+        discardPiles[g * Card.DECK_SIZE + discardPileSizes[g]++] = (byte) card;
+        if (hands[hand] == 0) {
+          winners[g] = seats[g];
+        }
+      } else {
+        passes[g]++;
+      }
+
+      if (winners[g] != NO_WINNER || passes[g] == amountOfPlayers) {
+        // Drops the finished game by moving the last running game into its place.
+        running[i--] = running[--runningCount];
+      } else {
+        seats[g] = seats[g] + 1 == amountOfPlayers ? 0 : seats[g] + 1;
+      }
+    }
+    return runningCount;
+  }
+
+  /**
+   * Plays every game to the finish.
+   */
+  public void play() {
+    while (runningCount > 0) {
+      step();
+    }
+  }
+
+  /**
+   * Draws into the given hand until a playable card comes up, reshuffling as needed.
+   *
+   * @return The id of the playable card drawn, or -1 if the piles ran out first.
+   */
+  private int drawForMatch(int g, int hand) {
+    int pile = g * Card.DECK_SIZE;
+    long matches = playable[discardPiles[pile + discardPileSizes[g] - 1]];
+    while (true) {
+      if (drawPileSizes[g] == 0) {
+        int n = discardPileSizes[g] - 1;
+        // With nothing under the top card there is nothing to reshuffle, and the player passes.
+        if (n == 0) {
+          return -1;
+        }
+        // Moves the discards under the top card to the draw pile and shuffles them.
+        reshuffles[g]++;
+        System.arraycopy(discardPiles, pile, drawPiles, pile, n);
+        discardPiles[pile] = discardPiles[pile + n];
+        discardPileSizes[g] = 1;
+        drawPileSizes[g] = n;
+        shufflers[g].shuffle(drawPiles, pile, n);
+      }
+      draws[g]++;
+      int card = drawPiles[pile + --drawPileSizes[g]];
+      if ((matches & (1L << card)) != 0) {
+        return card;
+      }
+      hands[hand] |= 1L << card;
+    }
+  }
+
+  /**
+   * Returns the number of games last dealt.
+   */
+  public int getGames() {
+    return games;
+  }
+
+  /**
+   * True once the given game has finished.
+   */
+  public boolean isOver(int game) {
+    return winners[game] != NO_WINNER || passes[game] == amountOfPlayers;
+  }
+
+  /**
+   * Returns the index of the winner of the given game, or {@link #NO_WINNER}.
+   */
+  public int getWinner(int game) {
+    return winners[game];
+  }
+
+  /**
+   * Returns the number of turns taken in the given game.
+   */
+  public int getTurns(int game) {
+    return turns[game];
+  }
+
+  /**
+   * Returns the number of cards drawn in the given game.
+   */
+  public int getDraws(int game) {
+    return draws[game];
+  }
+
+  /**
+   * Returns the number of reshuffles in the given game.
+   */
+  public int getReshuffles(int game) {
+    return reshuffles[game];
+  }
+
+  /**
+   * Adds every game of the batch to the given result, including those nobody won.
+   */
+  public void addTo(SimulationResult result) {
+    for (int g = 0; g < games; g++) {
+      result.addGame(winners[g], turns[g], draws[g], reshuffles[g]);
+    }
+  }
+}
@@ -11,42 +11,133 @@ import java.util.ArrayList;
  */
 public class EightsLogic {
 
-  private CardCollection deck;
-  private CardCollection drawPile;
-  private CardCollection discardPile;
+  private CardStack deck;
+  private CardStack drawPile;
+  private CardStack discardPile;
   private ArrayList<Player> players;
   private Player currentPlayer;
+  // The index of the current player, kept so the hot paths needn't search the list.
+  private int currentSeat;
   private boolean playerOnesTurn;
   private boolean hasAMatch;
+  private MatchTable matchTable;
+  private Shuffler shuffler;
+  private int drawCount;
+  private int reshuffleCount;
+  // Moves on whenever a card changes place, and is never reset.
+  private int changeCount;
+  private GameView[] views;
+  private CardTracker[] trackers;
+  private int[] handSizes;
+  private long decisionTime;
 
   public EightsLogic(ArrayList<Player> players) {
+    this(players, new Shuffler());
+  }
 
-    // Creates and shuffles a standard 52-deck of cards.
-    deck = new CardCollection("Deck");
-    deck.deck();
-    deck.shuffle();
+  /**
+   * Starts a game whose deal and reshuffles are drawn from the given shuffler. A seeded shuffler
+   * replays the same game for the same choices of play.
+   */
+  public EightsLogic(ArrayList<Player> players, Shuffler shuffler) {
+    this(players, null, shuffler);
+  }
+
+  /**
+   * Starts a game dealt from the given deck order, bottom card first, such as one read from a
+   * {@link DealLibrary}, with reshuffles drawn from the given shuffler. The shuffler is first moved
+   * past the shuffle the order stands in for, so the order shuffled from a seeded shuffler and a
+   * fresh shuffler of the same seed replay the game that shuffler alone would deal. A null order
+   * shuffles the deck with the shuffler instead.
+   */
+  public EightsLogic(ArrayList<Player> players, byte[] order, Shuffler shuffler) {
+
+    this.shuffler = shuffler;
+
+    // Uses the standard rules to decide which cards match.
+    matchTable = MatchTable.STANDARD;
+    // Gives computer strategies up to half a second to choose a card.
+    decisionTime = 500000000L;
 
-    // Deals each player their starting hand.
     this.players = players;
+    views = new GameView[players.size()];
+    for (int i = 0; i < views.length; i++) {
+      views[i] = new SeatView(i);
+    }
+    deck = new CardStack("Deck");
+    discardPile = new CardStack("Discards");
+    drawPile = new CardStack("Draw pile");
+    deal(order);
+
+  }
+
+  /**
+   * Starts a new game for the same players, dealt from the given shuffler. The hands, piles and
+   * trackers of the last game are emptied and reused, so a game between computer players which
+   * don't allocate allocates nothing once the first has been dealt.
+   */
+  public void newGame(Shuffler shuffler) {
+    newGame(null, shuffler);
+  }
+
+  /**
+   * Starts a new game for the same players as {@link #newGame(Shuffler)} does, but dealt from the
+   * given deck order, bottom card first, rather than shuffled.
+   */
+  public void newGame(byte[] order, Shuffler shuffler) {
+    this.shuffler = shuffler;
+    for (int i = 0; i < players.size(); i++) {
+      getPlayer(i).getHand().clear();
+    }
+    discardPile.clear();
+    drawPile.clear();
+    drawCount = 0;
+    reshuffleCount = 0;
+    deal(order);
+  }
+
+  /**
+   * Deals a full deck into the empty hands and piles and sets Player One to play first. The deck
+   * is shuffled unless an order is given, in which case the shuffler skips the shuffle instead.
+   */
+  private void deal(byte[] order) {
+    if (order == null) {
+      // Fills and shuffles a standard 52-deck of cards.
+      deck.deck();
+      deck.shuffle(shuffler);
+    } else {
+      deck.clear();
+      for (int i = 0; i < Card.DECK_SIZE; i++) {
+        deck.addCard(Card.of(order[i]));
+      }
+      // Reshuffles then draw the same numbers as in the game the order was shuffled for.
+      shuffler.skipShuffle(Card.DECK_SIZE);
+    }
+
+    // Deals each player their starting hand, indexing the list so no iterator is allocated.
     for (int i = 0; i < 5; i++) {
-      for (Player player : players) {
-        deck.deal(player.getHand(), 1);
+      for (int j = 0; j < players.size(); j++) {
+        deck.deal(getPlayer(j).getHand(), 1);
       }
     }
 
     // Turns one card face up.
-    discardPile = new CardCollection("Discards");
     deck.deal(discardPile, 1);
 
     // Puts the rest of the deck face down.
-    drawPile = new CardCollection("Draw pile");
     deck.dealAll(drawPile);
-    
+
+    // Starts each seat's record of the cards it hasn't seen.
+    startTrackers();
+
+    changeCount++;
+
     // Sets the first player (always Player One).
     currentPlayer = getPlayer(0);
+    currentSeat = 0;
     playerOnesTurn = true;
+    hasAMatch = false;
     searchForMatchCurrentPlayer();
-
   }
 
   /**
@@ -84,6 +175,27 @@ public class EightsLogic {
     return discardPile;
   }
 
+  /**
+   * Returns draw pile.
+   */
+  public CardCollection getDrawPile() {
+    return drawPile;
+  }
+
+  /**
+   * Returns the read-only view of the game from the seat with the given index.
+   */
+  public GameView getView(int seat) {
+    return views[seat];
+  }
+
+  /**
+   * Sets how long, in milliseconds, a computer strategy may take to choose a card.
+   */
+  public void setDecisionTime(long millis) {
+    decisionTime = millis * 1000000L;
+  }
+
   /**
    * Returns true if the current player's hand has been searched and a matching card was found.
    */
@@ -91,18 +203,61 @@ public class EightsLogic {
     return hasAMatch;
   }
 
+  /**
+   * Returns the number of cards drawn so far this game.
+   */
+  public int getDrawCount() {
+    return drawCount;
+  }
+
+  /**
+   * Returns a count which moves on whenever a card is dealt, drawn or played, or the game is
+   * replaced, so a view can tell whether the hands and piles have changed since it last drew them.
+   */
+  public int getChangeCount() {
+    return changeCount;
+  }
+
+  /**
+   * Returns the number of times the discard pile has been reshuffled this game.
+   */
+  public int getReshuffleCount() {
+    return reshuffleCount;
+  }
+
+  /**
+   * Returns a mask of every card the current player may play, without changing their hand.
+   */
+  public long getLegalMoves() {
+    return currentPlayer.getHand().getMask() & matchTable.getPlayable(discardPile.last());
+  }
+
+  /**
+   * Returns a new list of every card the current player may play, in card id order.
+   */
+  public ArrayList<Card> getLegalMoveCards() {
+    return CardMask.cards(getLegalMoves());
+  }
+
+  /**
+   * True if the current player holds the given card and may play it, false otherwise.
+   */
+  public boolean isLegalMove(Card card) {
+    return (getLegalMoves() & (1L << card.getId())) != 0;
+  }
+
   /**
    * Moves cards from the discard pile to the draw pile and shuffles.
    */
   public void reshuffle() {
-    // save the top card
-    Card cardToMatch = discardPile.popCard();
-    // move the rest of the cards
-    discardPile.dealAll(drawPile);
-    // put the top card back
-    discardPile.addCard(cardToMatch);
+    reshuffleCount++;
+    // move every card under the top card in one copy
+    discardPile.moveBottomTo(drawPile, discardPile.size() - 1);
     // shuffle the draw pile
-    drawPile.shuffle();
+    drawPile.shuffle(shuffler);
+    for (CardTracker tracker : trackers) {
+      tracker.reshuffled();
+    }
   }
 
   /**
@@ -112,7 +267,14 @@ public class EightsLogic {
     if (drawPile.empty()) {
       reshuffle();
     }
-    return drawPile.popCard();
+    drawCount++;
+    changeCount++;
+    Card card = drawPile.popCard();
+    // Only the current player ever draws.
+    for (CardTracker tracker : trackers) {
+      tracker.drew(currentSeat, card.getId());
+    }
+    return card;
   }
 
   /**
@@ -122,23 +284,32 @@ public class EightsLogic {
     // Resets the hasAMatch boolean as next player's cards haven't been checked yet.
     hasAMatch = false;
     // If the previous player was the last in the array the current player becomes Player 1.
-    if (getPlayerIndex(currentPlayer) == (players.size() - 1)) {
+    if (currentSeat == (players.size() - 1)) {
+      currentSeat = 0;
       currentPlayer = getPlayer(0);
       playerOnesTurn = true;
     }
     // Otherwise the current player becomes the next player in the player array.
     else {
-      currentPlayer = getPlayer(getPlayerIndex(currentPlayer) + 1);
+      currentSeat++;
+      currentPlayer = getPlayer(currentSeat);
     }
   }
 
   /**
    * Plays a matching computer player card or draws then plays if none of the initial cards match.
+   * The card is chosen by the player's strategy if they have one, or is otherwise the first
+   * matching card in their hand.
    */
   public Card play(Player player, Card cardToMatch) {
     CardCollection playersHand = player.getHand();
     // Searches the players hand to confirm whether or not it contains a matching card.
-    Card card = searchForMatch(playersHand, cardToMatch);
+    Card card;
+    if (player.getStrategy() == null) {
+      card = searchForMatch(playersHand, cardToMatch);
+    } else {
+      card = chooseMatch(player, cardToMatch);
+    }
     // If there are no matching cards, cards are drawn until there is a match.
     if (card == null) {
       card = drawForMatch(playersHand, cardToMatch);
@@ -152,31 +323,56 @@ public class EightsLogic {
    * hand and returned.
    */
   public Card searchForMatch(CardCollection hand, Card cardToMatch) {
-    for (int i = 0; i < hand.size(); i++) {
-      Card card = hand.getCard(i);
-      if (cardMatches(card, cardToMatch)) {
-        return hand.popCard(i);
-      }
+    int i = hand.firstIndexIn(matchTable.getPlayable(cardToMatch));
+    if (i < 0) {
+      return null;
     }
-    return null;
+    return hand.popCard(i);
+  }
+
+  /**
+   * Asks the player's strategy to choose a legal card. If one is chosen it is removed from the
+   * player's hand and returned; a strategy which returns an illegal card forfeits the choice to the
+   * first matching card.
+   */
+  public Card chooseMatch(Player player, Card cardToMatch) {
+    CardCollection hand = player.getHand();
+    long legal = hand.getMask() & matchTable.getPlayable(cardToMatch);
+    if (legal == 0) {
+      return null;
+    }
+    GameView view = views[getPlayerIndex(player)];
+    Card card = player.getStrategy().chooseCard(view, System.nanoTime() + decisionTime);
+    return removeChoice(hand, legal, card);
+  }
+
+  /**
+   * Removes the chosen card from the hand and returns it, or the first legal card instead if the
+   * choice isn't one of the given legal cards. Returns null if there are none.
+   */
+  private Card removeChoice(CardCollection hand, long legal, Card card) {
+    if (legal == 0) {
+      return null;
+    }
+    if (card == null || (legal & (1L << card.getId())) == 0) {
+      card = Card.of(Long.numberOfTrailingZeros(legal));
+    }
+    hand.removeCard(card);
+    return card;
   }
 
   /**
    * Checks if the current player has a matching card.
    */
   public void searchForMatchCurrentPlayer() {
-    CardCollection hand = currentPlayer.getHand();
-    for (int i = 0; i < hand.size(); i++) {
-      Card card = hand.getCard(i);
-      Card cardToMatch = discardPile.last();
-      if (cardMatches(card, cardToMatch)) {
-        hasAMatch = true;
-      }
+    if (getLegalMoves() != 0) {
+      hasAMatch = true;
     }
   }
 
   /**
-   * Confirms whether cards match according to the rules of Crazy Eights.
+   * Confirms whether cards match according to the rules of Crazy Eights. Kept as the reference for
+   * the precomputed {@link MatchTable} the game itself uses.
    */
   public boolean cardMatches(Card card, Card cardToMatch) {
     if (card.getRank() == cardToMatch.getRank()) {
@@ -200,11 +396,13 @@ public class EightsLogic {
   public Card drawForMatch(CardCollection hand, Card cardToMatch) {
     Card newCard = draw();
     hand.addCard(newCard);
-    while (!cardMatches(newCard, cardToMatch)) {
+    while (!matchTable.matches(newCard, cardToMatch)) {
       newCard = draw();
       hand.addCard(newCard);
     }
-    return hand.popCard();
+    // Removes the drawn card by identity, as not every hand keeps the newest card last.
+    hand.removeCard(newCard);
+    return newCard;
   }
 
   /**
@@ -223,7 +421,41 @@ public class EightsLogic {
   public void takeTurn() {
     Card cardToMatch = discardPile.last();
     Card matchingCard = play(currentPlayer, cardToMatch);
-    discardPile.addCard(matchingCard);
+    discard(matchingCard);
+  }
+
+  /**
+   * Returns the card the current computer player's strategy chooses, without playing it, or null
+   * if they have no strategy or no legal card. The game is only read, so the choice may be made
+   * on another thread while nothing changes the game.
+   */
+  public Card chooseCard() {
+    long legal = getLegalMoves();
+    if (currentPlayer.getStrategy() == null || legal == 0) {
+      return null;
+    }
+    GameView view = views[currentSeat];
+    return currentPlayer.getStrategy().chooseCard(view, System.nanoTime() + decisionTime);
+  }
+
+  /**
+   * Computer player takes a turn, playing the card chosen beforehand by {@link #chooseCard()}.
+   * Without a strategy the first matching card is played instead, and an illegal choice forfeits
+   * to the first legal card, just as {@link #takeTurn()} plays.
+   */
+  public void takeTurn(Card chosen) {
+    Card cardToMatch = discardPile.last();
+    CardCollection hand = currentPlayer.getHand();
+    Card card;
+    if (currentPlayer.getStrategy() == null) {
+      card = searchForMatch(hand, cardToMatch);
+    } else {
+      card = removeChoice(hand, hand.getMask() & matchTable.getPlayable(cardToMatch), chosen);
+    }
+    if (card == null) {
+      card = drawForMatch(hand, cardToMatch);
+    }
+    discard(card);
   }
 
   /**
@@ -240,14 +472,107 @@ public class EightsLogic {
       int cardIndex = hand.getCardIndex(selectedCard);
       Card cardToMatch = discardPile.last();
       // Checks whether the selected card is a matching card.
-      if (cardMatches(selectedCard, cardToMatch)) {
+      if (matchTable.matches(selectedCard, cardToMatch)) {
         // If the card matches it is removed using the card's index.
-        discardPile.addCard(hand.popCard(cardIndex));
+        discard(hand.popCard(cardIndex));
         playerOnesTurn = false;
       }
     }
   }
 
+  /**
+   * Returns the game as a compact {@link GameState}, for searching or simulating from here.
+   */
+  public GameState toGameState() {
+    GameState state = new GameState(players.size(), matchTable);
+    for (int i = 0; i < players.size(); i++) {
+      state.setHand(i, getPlayer(i).getHand().getMask());
+    }
+    state.setDrawPile(ids(drawPile), 0, drawPile.size());
+    state.setDiscardPile(ids(discardPile), 0, discardPile.size());
+    state.setSeat(currentSeat);
+    return state;
+  }
+
+  /**
+   * Replaces the game with the given state, which must have one hand per player. Each seat starts
+   * again knowing only what it can see.
+   */
+  public void setGameState(GameState state) {
+    if (state.getAmountOfPlayers() != players.size()) {
+      throw new IllegalArgumentException(
+          "State has " + state.getAmountOfPlayers() + " players, not " + players.size());
+    }
+    for (int i = 0; i < players.size(); i++) {
+      CardCollection hand = getPlayer(i).getHand();
+      hand.clear();
+      for (long bits = state.getHand(i); bits != 0; bits &= bits - 1) {
+        hand.addCard(Card.of(Long.numberOfTrailingZeros(bits)));
+      }
+    }
+    drawPile.clear();
+    for (int i = 0; i < state.getDrawPileSize(); i++) {
+      drawPile.addCard(Card.of(state.getDrawPileCard(i)));
+    }
+    discardPile.clear();
+    for (int i = 0; i < state.getDiscardPileSize(); i++) {
+      discardPile.addCard(Card.of(state.getDiscard(i)));
+    }
+    changeCount++;
+    currentSeat = state.getSeat();
+    currentPlayer = getPlayer(currentSeat);
+    playerOnesTurn = state.getSeat() == 0;
+    hasAMatch = false;
+    searchForMatchCurrentPlayer();
+    startTrackers();
+  }
+
+  /**
+   * Starts every seat's tracker from what it can see of the game now, reusing the trackers of
+   * the last game.
+   */
+  private void startTrackers() {
+    if (trackers == null) {
+      handSizes = new int[players.size()];
+      trackers = new CardTracker[handSizes.length];
+    }
+    for (int i = 0; i < handSizes.length; i++) {
+      handSizes[i] = getPlayer(i).getHand().size();
+    }
+    for (int i = 0; i < trackers.length; i++) {
+      long hand = getPlayer(i).getHand().getMask();
+      if (trackers[i] == null) {
+        trackers[i] = new CardTracker(i, matchTable, hand, discardPile.getMask(),
+            discardPile.last(), handSizes, drawPile.size());
+      } else {
+        trackers[i].restart(hand, discardPile.getMask(), discardPile.last(), handSizes,
+            drawPile.size());
+      }
+    }
+  }
+
+  /**
+   * Returns the ids of the cards in the given pile, in order.
+   */
+  private static byte[] ids(CardCollection pile) {
+    byte[] ids = new byte[pile.size()];
+    for (int i = 0; i < ids.length; i++) {
+      ids[i] = (byte) pile.getCard(i).getId();
+    }
+    return ids;
+  }
+
+  /**
+   * Puts the current player's card on the discard pile and tells every seat.
+   */
+  private void discard(Card card) {
+    changeCount++;
+    discardPile.addCard(card);
+    for (CardTracker tracker : trackers) {
+      tracker.played(currentSeat, card.getId());
+    }
+  }
+
   /**
    * Returns true when the game finishes
    */
@@ -255,4 +580,64 @@ public class EightsLogic {
     // When a player's hand is empty the game is over!
     return currentPlayer.getHand().empty();
   }
+
+  /**
+   * Shows the game to a computer strategy as seen from one seat.
+   */
+  private class SeatView implements GameView {
+
+    private int seat;
+
+    SeatView(int seat) {
+      this.seat = seat;
+    }
+
+    public int getAmountOfPlayers() {
+      return players.size();
+    }
+
+    public int getSeat() {
+      return seat;
+    }
+
+    public long getHand() {
+      return getPlayer(seat).getHand().getMask();
+    }
+
+    public int getHandSize(int index) {
+      return getPlayer(index).getHand().size();
+    }
+
+    public Card getCardToMatch() {
+      return discardPile.last();
+    }
+
+    public long getDiscards() {
+      return discardPile.getMask();
+    }
+
+    public int getDiscardPileSize() {
+      return discardPile.size();
+    }
+
+    public Card getDiscard(int index) {
+      return discardPile.getCard(index);
+    }
+
+    public int getDrawPileSize() {
+      return drawPile.size();
+    }
+
+    public long getLegalMoves() {
+      return getHand() & matchTable.getPlayable(discardPile.last());
+    }
+
+    public MatchTable getMatchTable() {
+      return matchTable;
+    }
+
+    public CardTracker getTracker() {
+      return trackers[seat];
+    }
+  }
 }
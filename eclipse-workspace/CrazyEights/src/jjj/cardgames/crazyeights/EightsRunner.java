@@ -0,0 +1,112 @@
+package jjj.cardgames.crazyeights;
+
+import java.util.ArrayList;
+
+/**
+ * Plays whole games of Crazy Eights without a GUI, with every seat taken by a computer player.
+ *
+ * The players and game are created with the first game and dealt again for each one after, so
+ * once warmed up a game between players without strategies allocates nothing.
+ *
+ * @author Joshua Hardman
+ *
+ */
+public class EightsRunner {
+
+  private int amountOfPlayers;
+  private Shuffler shuffler;
+  private Strategy[] strategies;
+  private ArrayList<Player> players;
+  private EightsLogic logic;
+  private int turns;
+  private int draws;
+  private int reshuffles;
+
+  /**
+   * Constructs a runner for games with the given number of players, dealt from the given
+   * shuffler.
+   */
+  public EightsRunner(int amountOfPlayers, Shuffler shuffler) {
+    this.amountOfPlayers = amountOfPlayers;
+    this.shuffler = shuffler;
+    this.strategies = new Strategy[amountOfPlayers];
+  }
+
+  /**
+   * Sets the strategy for the player with the given index. Players without one play the first
+   * matching card.
+   */
+  public void setStrategy(int seat, Strategy strategy) {
+    strategies[seat] = strategy;
+  }
+
+  /**
+   * Plays one game to the finish and returns the index of the winning player.
+   */
+  public int playGame() {
+    return playGame(shuffler);
+  }
+
+  /**
+   * Plays one game dealt from the given shuffler and returns the index of the winning player.
+   */
+  public int playGame(Shuffler shuffler) {
+    return playGame(null, shuffler);
+  }
+
+  /**
+   * Plays one game dealt from the given deck order, bottom card first, with reshuffles drawn from
+   * the given shuffler, and returns the index of the winning player. A null order shuffles the deck
+   * with the shuffler instead.
+   */
+  public int playGame(byte[] order, Shuffler shuffler) {
+    if (logic == null) {
+      players = new ArrayList<Player>(amountOfPlayers);
+      for (int i = 0; i < amountOfPlayers; i++) {
+        String name = "Player " + (i + 1);
+        players.add(new Player(name, new CardMask(name)));
+      }
+    }
+    for (int i = 0; i < amountOfPlayers; i++) {
+      players.get(i).setStrategy(strategies[i]);
+    }
+    if (logic == null) {
+      logic = new EightsLogic(players, order, shuffler);
+    } else {
+      logic.newGame(order, shuffler);
+    }
+    turns = 0;
+    // Each computer player takes their turn until one of them runs out of cards.
+    while (!logic.isOver()) {
+      logic.takeTurn();
+      turns++;
+      if (!logic.isOver()) {
+        logic.nextPlayer();
+      }
+    }
+    draws = logic.getDrawCount();
+    reshuffles = logic.getReshuffleCount();
+    return logic.getPlayerIndex(logic.getCurrentPlayer());
+  }
+
+  /**
+   * Returns the number of turns taken in the last game.
+   */
+  public int getTurns() {
+    return turns;
+  }
+
+  /**
+   * Returns the number of cards drawn in the last game.
+   */
+  public int getDraws() {
+    return draws;
+  }
+
+  /**
+   * Returns the number of reshuffles in the last game.
+   */
+  public int getReshuffles() {
+    return reshuffles;
+  }
+}
@@ -0,0 +1,109 @@
+package jjj.cardgames.crazyeights;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Plays a batch of headless games split across the cores of a fork-join pool.
+ *
+ * Game n is always dealt from stream n of the batch seed, so the totals for a given seed are the
+ * same whatever the number of threads. Each worker plays its games in lockstep batches with its
+ * own {@link EightsBatch} and fills its own {@link SimulationResult}; results are merged as the
+ * tasks join.
+ *
+ * @author Joshua Hardman
+ *
+ */
+public class EightsSimulation {
+
+  // The largest number of games played by a task without splitting further.
+  private static final int GAMES_PER_TASK = 2048;
+  // The number of games played in lockstep by a task.
+  private static final int GAMES_PER_BATCH = 1024;
+
+  private int amountOfPlayers;
+  private MatchTable matchTable;
+  private long seed;
+
+  /**
+   * Constructs a simulation of games with the given number of players, reproducible for the given
+   * seed.
+   */
+  public EightsSimulation(int amountOfPlayers, long seed) {
+    this(amountOfPlayers, MatchTable.STANDARD, seed);
+  }
+
+  /**
+   * Constructs a simulation of games with the given number of players played by the rules of the
+   * given table, reproducible for the given seed.
+   */
+  public EightsSimulation(int amountOfPlayers, MatchTable matchTable, long seed) {
+    this.amountOfPlayers = amountOfPlayers;
+    this.matchTable = matchTable;
+    this.seed = seed;
+  }
+
+  /**
+   * Plays the given number of games using the given number of threads and returns the totals.
+   */
+  public SimulationResult run(long games, int threads) {
+    return run(0, games, threads);
+  }
+
+  /**
+   * Plays games first (inclusive) to last (exclusive) using the given number of threads and
+   * returns the totals.
+   */
+  public SimulationResult run(long first, long last, int threads) {
+    ForkJoinPool pool = new ForkJoinPool(threads);
+    try {
+      return pool.invoke(new GamesTask(first, last));
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * Plays games first (inclusive) to last (exclusive) on the calling thread and returns the
+   * totals.
+   */
+  public SimulationResult play(long first, long last) {
+    EightsBatch batch = new EightsBatch(GAMES_PER_BATCH, amountOfPlayers, matchTable);
+    SimulationResult result = new SimulationResult(amountOfPlayers);
+    for (long game = first; game < last; game += GAMES_PER_BATCH) {
+      batch.deal(seed, game, (int) Math.min(GAMES_PER_BATCH, last - game));
+      batch.play();
+      batch.addTo(result);
+    }
+    return result;
+  }
+
+  /**
+   * Splits a range of games in half until it is small enough to play directly.
+   */
+  private class GamesTask extends RecursiveTask<SimulationResult> {
+
+    private static final long serialVersionUID = 2310863521849462718L;
+
+    private long first;
+    private long last;
+
+    GamesTask(long first, long last) {
+      this.first = first;
+      this.last = last;
+    }
+
+    @Override
+    protected SimulationResult compute() {
+      if (last - first <= GAMES_PER_TASK) {
+        return play(first, last);
+      }
+      long middle = (first + last) >>> 1;
+      GamesTask lower = new GamesTask(first, middle);
+      lower.fork();
+      SimulationResult result = new GamesTask(middle, last).compute();
+      result.merge(lower.join());
+      return result;
+    }
+  }
+}
@@ -0,0 +1,330 @@
+package jjj.cardgames.crazyeights;
+
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Solves the end of a game by expectimax search, with every hand known and each draw a chance
+ * event over the cards left in the draw pile.
+ *
+ * Each player is assumed to play the card giving them the best chance of winning. Positions are
+ * hashed incrementally with {@link Zobrist} keys and cached in a shared {@link TranspositionTable}.
+ * Because play can cycle through draws and reshuffles, the search deepens step by step until every
+ * line ends in a win, marking the result exact, or until time runs out; positions at the depth
+ * limit are estimated from the hand sizes. Each deal of the hidden cards and each candidate card is
+ * searched as a separate fork-join task, so idle threads steal work from busy ones.
+ *
+ * @author Joshua Hardman
+ *
+ */
+public class EndgameSolver {
+
+  // The deepest search attempted, in plies counting every draw.
+  private static final int MAX_DEPTH = 60;
+  // How often, in nodes, a search checks the clock.
+  private static final int CLOCK_INTERVAL = 1024;
+
+  private TranspositionTable table;
+  private boolean exact;
+  private int depth;
+
+  /**
+   * Constructs a solver caching positions in the given table.
+   */
+  public EndgameSolver(TranspositionTable table) {
+    this.table = table;
+  }
+
+  /**
+   * Chooses the card for the given player with the best average chance of winning over the given
+   * deals.
+   *
+   * @param matchTable The rules being played.
+   * @param deals The possible hands of every player, one array of masks per deal.
+   * @param seat The index of the player to move.
+   * @param discards The mask of the discard pile, including the top card.
+   * @param cardToMatch The id of the card on top of the discard pile.
+   * @param stop The {@link System#nanoTime()} at which to give up.
+   * @return The id of the card to play, or -1 if not even a shallow search finished in time.
+   */
+  public int solve(MatchTable matchTable, long[][] deals, int seat, long discards,
+      int cardToMatch, long stop) {
+    long legal = deals[0][seat] & matchTable.getPlayable(Card.of(cardToMatch));
+    int moves = Long.bitCount(legal);
+    int[] cards = new int[moves];
+    for (int i = 0; i < moves; i++) {
+      cards[i] = Long.numberOfTrailingZeros(legal);
+      legal &= legal - 1;
+    }
+
+    exact = false;
+    depth = 0;
+    int best = -1;
+    if (moves == 0) {
+      return best;
+    }
+    for (int limit = 2; limit <= MAX_DEPTH && !exact; limit += 2) {
+      ArrayList<MoveTask> tasks = new ArrayList<MoveTask>();
+      for (long[] hands : deals) {
+        for (int card : cards) {
+          tasks.add(
+              new MoveTask(matchTable, hands, seat, discards, cardToMatch, card, limit, stop));
+        }
+      }
+      ForkJoinPool.commonPool().invoke(new RecursiveAction() {
+        private static final long serialVersionUID = -1510735932214806232L;
+
+        @Override
+        protected void compute() {
+          ForkJoinTask.invokeAll(tasks);
+        }
+      });
+
+      // Averages each card's chances over the deals, unless time ran out before they were done.
+      double[] chances = new double[moves];
+      boolean allExact = true;
+      for (int i = 0; i < tasks.size(); i++) {
+        MoveTask task = tasks.get(i);
+        if (task.search.aborted) {
+          return best;
+        }
+        chances[i % moves] += task.chance;
+        allExact &= task.exact;
+      }
+      int bestMove = 0;
+      for (int i = 1; i < moves; i++) {
+        if (chances[i] > chances[bestMove]) {
+          bestMove = i;
+        }
+      }
+      best = cards[bestMove];
+      exact = allExact;
+      depth = limit;
+    }
+    return best;
+  }
+
+  /**
+   * True if the last solve searched every line to the end of the game.
+   */
+  public boolean isExact() {
+    return exact;
+  }
+
+  /**
+   * Returns the depth of the last completed search of the last solve.
+   */
+  public int getDepth() {
+    return depth;
+  }
+
+  /**
+   * Searches one candidate card in one deal.
+   */
+  private class MoveTask extends RecursiveAction {
+
+    private static final long serialVersionUID = 6082359170914521765L;
+
+    private Search search;
+    private int seat;
+    private int card;
+    private int limit;
+    private double chance;
+    private boolean exact;
+
+    MoveTask(MatchTable matchTable, long[] hands, int seat, long discards, int cardToMatch,
+        int card, int limit, long stop) {
+      this.search = new Search(matchTable, hands, seat, discards, cardToMatch, stop);
+      this.seat = seat;
+      this.card = card;
+      this.limit = limit;
+    }
+
+    @Override
+    protected void compute() {
+      float[] values = search.values[0];
+      exact = search.play(card, limit, 0);
+      chance = values[seat];
+    }
+  }
+
+  /**
+   * The position being searched by one thread, changed and restored as the search moves.
+   */
+  private class Search {
+
+    private MatchTable matchTable;
+    private long[] hands;
+    private int cardToMatch;
+    private long drawPile;
+    private int seat;
+    private long hash;
+    private long stop;
+    private int nodes;
+    private boolean aborted;
+    // The win probabilities of each player, one array per ply: a play and a search each take one.
+    private float[][] values;
+
+    Search(MatchTable matchTable, long[] hands, int seat, long discards, int cardToMatch,
+        long stop) {
+      this.matchTable = matchTable;
+      this.hands = hands.clone();
+      this.seat = seat;
+      this.cardToMatch = cardToMatch;
+      this.stop = stop;
+      this.values = new float[2 * MAX_DEPTH + 2][hands.length];
+      long held = 0L;
+      hash = Zobrist.players(hands.length) ^ Zobrist.seat(seat) ^ Zobrist.cardToMatch(cardToMatch);
+      for (int i = 0; i < hands.length; i++) {
+        held |= hands[i];
+        hash ^= Zobrist.hand(i, hands[i]);
+      }
+      drawPile = CardMask.DECK & ~held & ~discards;
+      hash ^= Zobrist.drawPile(drawPile);
+    }
+
+    /**
+     * Plays the given card for the player to move and searches the position that follows.
+     * Leaves the win probabilities in the values for the given ply.
+     *
+     * @return True if the result is exact.
+     */
+    boolean play(int card, int depth, int ply) {
+      float[] out = values[ply];
+      int mover = seat;
+      int previous = cardToMatch;
+      hands[mover] &= ~(1L << card);
+      cardToMatch = card;
+      long change = Zobrist.hand(mover, card) ^ Zobrist.cardToMatch(previous)
+          ^ Zobrist.cardToMatch(card);
+      hash ^= change;
+      boolean result;
+      if (hands[mover] == 0) {
+        for (int i = 0; i < out.length; i++) {
+          out[i] = i == mover ? 1f : 0f;
+        }
+        result = true;
+      } else {
+        seat = mover + 1 == hands.length ? 0 : mover + 1;
+        hash ^= Zobrist.seat(mover) ^ Zobrist.seat(seat);
+        result = search(depth - 1, ply + 1);
+        System.arraycopy(values[ply + 1], 0, out, 0, out.length);
+        hash ^= Zobrist.seat(mover) ^ Zobrist.seat(seat);
+        seat = mover;
+      }
+      hash ^= change;
+      cardToMatch = previous;
+      hands[mover] |= 1L << card;
+      return result;
+    }
+
+    /**
+     * Searches the current position to the given depth, leaving the win probabilities in the
+     * values for the given ply.
+     *
+     * @return True if the result is exact.
+     */
+    boolean search(int depth, int ply) {
+      float[] out = values[ply];
+      int found = table.probe(hash, depth, out);
+      if (found >= 0) {
+        return found == 1;
+      }
+      if (depth <= 0 || aborted || (++nodes % CLOCK_INTERVAL == 0 && System.nanoTime() > stop)) {
+        aborted |= depth > 0;
+        estimate(out);
+        return false;
+      }
+
+      boolean result = true;
+      long legal = hands[seat] & matchTable.getPlayable(Card.of(cardToMatch));
+      if (legal != 0) {
+        // The player to move takes the card best for them.
+        float best = -1f;
+        for (long bits = legal; bits != 0; bits &= bits - 1) {
+          result &= play(Long.numberOfTrailingZeros(bits), depth, ply + 1);
+          float[] child = values[ply + 1];
+          if (child[seat] > best) {
+            best = child[seat];
+            System.arraycopy(child, 0, out, 0, out.length);
+          }
+        }
+      } else {
+        result = draw(depth, ply);
+      }
+      if (!aborted) {
+        table.store(hash, depth, result, out);
+      }
+      return result;
+    }
+
+    /**
+     * Averages the positions after each card the player to move could draw, reshuffling the
+     * discards first if the draw pile is empty.
+     */
+    private boolean draw(int depth, int ply) {
+      float[] out = values[ply];
+      long reshuffled = 0L;
+      if (drawPile == 0) {
+        long held = 0L;
+        for (long hand : hands) {
+          held |= hand;
+        }
+        reshuffled = CardMask.DECK & ~held & ~(1L << cardToMatch);
+        if (reshuffled == 0) {
+          // Nobody can draw or play, so the game can't be won.
+          for (int i = 0; i < out.length; i++) {
+            out[i] = 0f;
+          }
+          return true;
+        }
+        drawPile = reshuffled;
+        hash ^= Zobrist.drawPile(reshuffled);
+      }
+
+      boolean result = true;
+      float chance = 1f / Long.bitCount(drawPile);
+      for (int i = 0; i < out.length; i++) {
+        out[i] = 0f;
+      }
+      for (long bits = drawPile; bits != 0; bits &= bits - 1) {
+        int card = Long.numberOfTrailingZeros(bits);
+        long change = Zobrist.drawPile(card) ^ Zobrist.hand(seat, card);
+        drawPile &= ~(1L << card);
+        hands[seat] |= 1L << card;
+        hash ^= change;
+        result &= search(depth - 1, ply + 1);
+        hash ^= change;
+        hands[seat] &= ~(1L << card);
+        drawPile |= 1L << card;
+        float[] child = values[ply + 1];
+        for (int i = 0; i < out.length; i++) {
+          out[i] += chance * child[i];
+        }
+      }
+
+      if (reshuffled != 0) {
+        hash ^= Zobrist.drawPile(reshuffled);
+        drawPile = 0L;
+      }
+      return result;
+    }
+
+    /**
+     * Estimates the win probabilities from the hand sizes: fewer cards, better chances.
+     */
+    private void estimate(float[] out) {
+      float total = 0f;
+      for (int i = 0; i < out.length; i++) {
+        int size = Long.bitCount(hands[i]);
+        out[i] = 1f / ((1 + size) * (1 + size));
+        total += out[i];
+      }
+      for (int i = 0; i < out.length; i++) {
+        out[i] /= total;
+      }
+    }
+  }
+}
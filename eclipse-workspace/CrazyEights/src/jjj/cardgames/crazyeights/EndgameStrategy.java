@@ -0,0 +1,154 @@
+package jjj.cardgames.crazyeights;
+
+/**
+ * A computer player which solves the end of the game with an {@link EndgameSolver} and leaves the
+ * rest to another strategy.
+ *
+ * The endgame starts once the players hold few enough cards between them. The opponents' hands
+ * are then dealt from the unseen cards in every possible way when there are few enough, or at
+ * random otherwise, and the solver finds the card with the best average chance of winning over
+ * those deals.
+ *
+ * @author Joshua Hardman
+ *
+ */
+public class EndgameStrategy implements Strategy {
+
+  // The most cards held by all players for the solver to take over.
+  private static final int ENDGAME_CARDS = 8;
+  // The most deals of the unseen cards searched per move.
+  private static final int MAX_DEALS = 32;
+  // Time kept back from the deadline for asking the fallback strategy.
+  private static final long DEADLINE_MARGIN = 2000000L;
+  private static final int TABLE_BUCKETS = 1 << 16;
+
+  private Strategy fallback;
+  private long moveTime;
+  private Shuffler shuffler;
+  private TranspositionTable table;
+  private EndgameSolver solver;
+
+  /**
+   * Constructs a player which solves endgames for up to the given time per move and otherwise
+   * plays as the given strategy.
+   */
+  public EndgameStrategy(Strategy fallback, long moveMillis) {
+    this(fallback, moveMillis, new Shuffler());
+  }
+
+  /**
+   * Constructs a player which solves endgames for up to the given time per move, dealing unseen
+   * cards with the given shuffler, and otherwise plays as the given strategy.
+   */
+  public EndgameStrategy(Strategy fallback, long moveMillis, Shuffler shuffler) {
+    this.fallback = fallback;
+    this.moveTime = moveMillis * 1000000L;
+    this.shuffler = shuffler;
+    this.table = new TranspositionTable(TABLE_BUCKETS);
+    this.solver = new EndgameSolver(table);
+  }
+
+  /**
+   * Returns the solver's card in the endgame, or the fallback strategy's card otherwise or if the
+   * solver runs out of time.
+   */
+  public Card chooseCard(GameView game, long deadline) {
+    long legal = game.getLegalMoves();
+    if (Long.bitCount(legal) == 1) {
+      return Card.of(Long.numberOfTrailingZeros(legal));
+    }
+    if (isEndgame(game)) {
+      // Positions from earlier moves stay in the table, as their hashes cover the whole state.
+      long stop = Math.min(deadline, System.nanoTime() + moveTime) - DEADLINE_MARGIN;
+      int card = solver.solve(game.getMatchTable(), deal(game), game.getSeat(),
+          game.getDiscards(), game.getCardToMatch().getId(), stop);
+      if (card >= 0) {
+        return Card.of(card);
+      }
+    }
+    return fallback.chooseCard(game, deadline);
+  }
+
+  /**
+   * True if the game is small enough for the solver.
+   */
+  private boolean isEndgame(GameView game) {
+    if (game.getAmountOfPlayers() > Zobrist.MAX_PLAYERS) {
+      return false;
+    }
+    int held = 0;
+    for (int i = 0; i < game.getAmountOfPlayers(); i++) {
+      held += game.getHandSize(i);
+    }
+    return held <= ENDGAME_CARDS;
+  }
+
+  /**
+   * Returns deals of the unseen cards to the opponents, every possible one if a single opponent
+   * can hold few enough combinations of the cards they could be holding and random ones otherwise.
+   */
+  private long[][] deal(GameView game) {
+    int amountOfPlayers = game.getAmountOfPlayers();
+    int seat = game.getSeat();
+    CardTracker tracker = game.getTracker();
+
+    if (amountOfPlayers == 2) {
+      int opponent = 1 - seat;
+      int size = game.getHandSize(opponent);
+      byte[] possible = ids(tracker.getPossible(opponent));
+      if (combinations(possible.length, size) <= MAX_DEALS) {
+        long[][] deals = new long[(int) combinations(possible.length, size)][];
+        // Steps through every subset of the cards they could hold of the opponent's hand size.
+        long subset = (1L << size) - 1;
+        for (int d = 0; d < deals.length; d++) {
+          long[] hands = new long[2];
+          hands[seat] = game.getHand();
+          for (long bits = subset; bits != 0; bits &= bits - 1) {
+            hands[opponent] |= 1L << possible[Long.numberOfTrailingZeros(bits)];
+          }
+          deals[d] = hands;
+          if (subset != 0) {
+            long lowest = subset & -subset;
+            long ripple = subset + lowest;
+            subset = ripple | (((subset ^ ripple) >>> 2) / lowest);
+          }
+        }
+        return deals;
+      }
+    }
+
+    // Random deals keep to the cards each opponent could be holding.
+    byte[] ids = ids(tracker.getUnseen());
+    byte[] drawPile = new byte[ids.length];
+    long[][] deals = new long[MAX_DEALS][];
+    for (int d = 0; d < deals.length; d++) {
+      shuffler.shuffle(ids, 0, ids.length);
+      deals[d] = new long[amountOfPlayers];
+      tracker.deal(ids, deals[d], drawPile);
+    }
+    return deals;
+  }
+
+  /**
+   * Returns the ids of the cards in the given mask.
+   */
+  private static byte[] ids(long cards) {
+    byte[] ids = new byte[Long.bitCount(cards)];
+    for (int i = 0; i < ids.length; i++) {
+      ids[i] = (byte) Long.numberOfTrailingZeros(cards);
+      cards &= cards - 1;
+    }
+    return ids;
+  }
+
+  /**
+   * Returns the number of ways to choose k of n things.
+   */
+  private static long combinations(int n, int k) {
+    long result = 1;
+    for (int i = 1; i <= k; i++) {
+      result = result * (n - k + i) / i;
+    }
+    return result;
+  }
+}
@@ -0,0 +1,468 @@
+package jjj.cardgames.crazyeights;
+
+import java.util.Arrays;
+
+/**
+ * A compact game of Crazy Eights held in primitive arrays, for searching and simulating games at
+ * high speed. Hands are card masks and the piles are arrays of card ids with the top card last.
+ *
+ * A state is reused rather than reallocated: {@link #copyFrom(GameState)} overwrites it with
+ * another state of the same size without allocating. With {@link #setRecording(boolean)} on, every
+ * move is recorded in an undo log, one entry per move, so a search can apply moves and take them
+ * back instead of copying the state at each step; setting up a state with the setters isn't
+ * recorded. Recording is off by default, and random playouts are never recorded, so rollouts
+ * which start each iteration from a copy pay nothing for it.
+ *
+ * @author Joshua Hardman
+ *
+ */
+public class GameState {
+
+  /**
+   * The winner of a game which hasn't been won.
+   */
+  public static final int NO_WINNER = -1;
+
+  /**
+   * The move of drawing a card, as passed to {@link #apply(int, Shuffler)}. Any other move is the
+   * id of the card played.
+   */
+  public static final int DRAW = Card.DECK_SIZE;
+
+  /**
+   * The move of passing play to the next player without playing.
+   */
+  public static final int PASS = Card.DECK_SIZE + 1;
+
+  // The kinds of entry in the undo log, held in its lowest two bits.
+  private static final int PLAYED = 0;
+  private static final int DREW = 1;
+  private static final int PASSED = 2;
+  private static final int RESHUFFLED = 3;
+  // Marks the entry of a card drawn after a reshuffle, whose own entry comes just before it.
+  private static final int AFTER_RESHUFFLE = 1 << 6;
+
+  private MatchTable matchTable;
+  private long[] hands;
+  private byte[] drawPile;
+  private int drawPileSize;
+  private byte[] discardPile;
+  private int discardPileSize;
+  private int seat;
+  private int winner;
+  private boolean recording;
+  // One entry per change: the kind, twelve bits of data and the seat before it. The data of a
+  // reshuffle is the sizes of both piles before it, whose cards are kept in order in saved.
+  private int[] history;
+  private int historySize;
+  private byte[] saved;
+  private int savedSize;
+
+  /**
+   * Constructs an empty state for the given number of players and rules.
+   */
+  public GameState(int amountOfPlayers, MatchTable matchTable) {
+    this.matchTable = matchTable;
+    this.hands = new long[amountOfPlayers];
+    this.drawPile = new byte[Card.DECK_SIZE];
+    this.discardPile = new byte[Card.DECK_SIZE];
+    this.winner = NO_WINNER;
+    this.history = new int[64];
+    this.saved = new byte[2 * Card.DECK_SIZE];
+  }
+
+  /**
+   * Returns a new state equal to this one, with an empty undo log.
+   */
+  public GameState copy() {
+    GameState copy = new GameState(hands.length, matchTable);
+    copy.copyFrom(this);
+    return copy;
+  }
+
+  /**
+   * Overwrites this state with the given state, which must have the same number of players, and
+   * empties the undo log. Whether moves are recorded is kept as it was.
+   */
+  public void copyFrom(GameState that) {
+    matchTable = that.matchTable;
+    System.arraycopy(that.hands, 0, hands, 0, hands.length);
+    System.arraycopy(that.drawPile, 0, drawPile, 0, that.drawPileSize);
+    drawPileSize = that.drawPileSize;
+    System.arraycopy(that.discardPile, 0, discardPile, 0, that.discardPileSize);
+    discardPileSize = that.discardPileSize;
+    seat = that.seat;
+    winner = that.winner;
+    historySize = 0;
+    savedSize = 0;
+  }
+
+  /**
+   * Sets the hand of the player with the given index.
+   */
+  public void setHand(int player, long hand) {
+    hands[player] = hand;
+  }
+
+  /**
+   * Sets the draw pile to the first n of the given card ids, the last being the top.
+   */
+  public void setDrawPile(byte[] ids, int offset, int n) {
+    System.arraycopy(ids, offset, drawPile, 0, n);
+    drawPileSize = n;
+  }
+
+  /**
+   * Sets the discard pile to the cards of the given mask with the given card on top. The order of
+   * the cards beneath the top doesn't affect play, as they are shuffled before they are drawn.
+   */
+  public void setDiscardPile(long discards, Card cardToMatch) {
+    discardPileSize = 0;
+    for (long bits = discards & ~(1L << cardToMatch.getId()); bits != 0; bits &= bits - 1) {
+      discardPile[discardPileSize++] = (byte) Long.numberOfTrailingZeros(bits);
+    }
+    discardPile[discardPileSize++] = (byte) cardToMatch.getId();
+  }
+
+  /**
+   * Sets the discard pile to the first n of the given card ids, the last being the card to match.
+   */
+  public void setDiscardPile(byte[] ids, int offset, int n) {
+    System.arraycopy(ids, offset, discardPile, 0, n);
+    discardPileSize = n;
+  }
+
+  /**
+   * Sets the index of the player to move and clears any winner.
+   */
+  public void setSeat(int seat) {
+    this.seat = seat;
+    this.winner = NO_WINNER;
+  }
+
+  /**
+   * Returns the number of players.
+   */
+  public int getAmountOfPlayers() {
+    return hands.length;
+  }
+
+  /**
+   * Returns the index of the player to move.
+   */
+  public int getSeat() {
+    return seat;
+  }
+
+  /**
+   * Returns the hand of the player with the given index as a mask.
+   */
+  public long getHand(int player) {
+    return hands[player];
+  }
+
+  /**
+   * Returns the id of the card on top of the discard pile.
+   */
+  public int getCardToMatch() {
+    return discardPile[discardPileSize - 1];
+  }
+
+  /**
+   * Returns the mask of the cards in the draw pile.
+   */
+  public long getDrawPile() {
+    long cards = 0L;
+    for (int i = 0; i < drawPileSize; i++) {
+      cards |= 1L << drawPile[i];
+    }
+    return cards;
+  }
+
+  /**
+   * Returns the id of the card at the given index of the draw pile, the top card being last.
+   */
+  public int getDrawPileCard(int index) {
+    return drawPile[index];
+  }
+
+  /**
+   * Returns the number of cards in the draw pile.
+   */
+  public int getDrawPileSize() {
+    return drawPileSize;
+  }
+
+  /**
+   * Returns the number of cards in the discard pile.
+   */
+  public int getDiscardPileSize() {
+    return discardPileSize;
+  }
+
+  /**
+   * Returns the id of the card at the given index of the discard pile, the top card being last.
+   */
+  public int getDiscard(int index) {
+    return discardPile[index];
+  }
+
+  /**
+   * Returns the index of the winning player, or {@link #NO_WINNER}.
+   */
+  public int getWinner() {
+    return winner;
+  }
+
+  /**
+   * True once a player has played their last card.
+   */
+  public boolean isOver() {
+    return winner != NO_WINNER;
+  }
+
+  /**
+   * Returns the mask of the cards the player to move may play.
+   */
+  public long getLegalMoves() {
+    return hands[seat] & matchTable.getPlayable(Card.of(getCardToMatch()));
+  }
+
+  /**
+   * Plays the given card, which must be legal, from the hand of the player to move. Play passes to
+   * the next player unless the card was their last.
+   */
+  public void play(int card) {
+    record(PLAYED, card);
+    hands[seat] &= ~(1L << card);
+    discardPile[discardPileSize++] = (byte) card;
+    if (hands[seat] == 0) {
+      winner = seat;
+    } else {
+      // The entry keeps the seat before the play, so undoing it also takes back this step.
+      advanceSeat();
+    }
+  }
+
+  /**
+   * Relabels the suits of every card in the game by the given {@link SuitSymmetry} permutation.
+   */
+  public void permuteSuits(int permutation) {
+    for (int i = 0; i < hands.length; i++) {
+      hands[i] = SuitSymmetry.permute(hands[i], permutation);
+    }
+    for (int i = 0; i < drawPileSize; i++) {
+      drawPile[i] = (byte) SuitSymmetry.permute(drawPile[i], permutation);
+    }
+    for (int i = 0; i < discardPileSize; i++) {
+      discardPile[i] = (byte) SuitSymmetry.permute(discardPile[i], permutation);
+    }
+  }
+
+  /**
+   * Passes play to the next player without a card being played.
+   */
+  public void nextSeat() {
+    record(PASSED, 0);
+    advanceSeat();
+  }
+
+  /**
+   * Moves play to the next player without recording it.
+   */
+  private void advanceSeat() {
+    seat = seat + 1 == hands.length ? 0 : seat + 1;
+  }
+
+  /**
+   * Draws one card into the hand of the player to move, reshuffling the discard pile when the draw
+   * pile is empty.
+   *
+   * @return The id of the card drawn, or -1 if there are no cards left to draw.
+   */
+  public int draw(Shuffler shuffler) {
+    int reshuffled = 0;
+    if (drawPileSize == 0) {
+      reshuffle(shuffler);
+      if (drawPileSize == 0) {
+        return -1;
+      }
+      reshuffled = AFTER_RESHUFFLE;
+    }
+    int card = drawPile[--drawPileSize];
+    hands[seat] |= 1L << card;
+    record(DREW, card | reshuffled);
+    return card;
+  }
+
+  /**
+   * Draws cards into the hand of the player to move until one can be played.
+   *
+   * @return The id of the playable card drawn, still in the hand, or -1 if the piles ran out first.
+   */
+  public int drawForMatch(Shuffler shuffler) {
+    long playable = matchTable.getPlayable(Card.of(getCardToMatch()));
+    int card;
+    do {
+      card = draw(shuffler);
+    } while (card >= 0 && (playable & (1L << card)) == 0);
+    return card;
+  }
+
+  /**
+   * Moves the cards under the top discard to the draw pile and shuffles it.
+   */
+  public void reshuffle(Shuffler shuffler) {
+    int n = discardPileSize - 1;
+    if (recording) {
+      // Keeps both piles as they were for undoing.
+      if (savedSize + drawPileSize + n > saved.length) {
+        saved = Arrays.copyOf(saved, Math.max(2 * saved.length, savedSize + drawPileSize + n));
+      }
+      System.arraycopy(drawPile, 0, saved, savedSize, drawPileSize);
+      System.arraycopy(discardPile, 0, saved, savedSize + drawPileSize, n);
+      savedSize += drawPileSize + n;
+      record(RESHUFFLED, drawPileSize | n << 6);
+    }
+    System.arraycopy(discardPile, 0, drawPile, drawPileSize, n);
+    drawPileSize += n;
+    discardPile[0] = discardPile[n];
+    discardPileSize = 1;
+    shuffler.shuffle(drawPile, 0, drawPileSize);
+  }
+
+  /**
+   * Makes the given move for the player to move: playing a card, which must be legal,
+   * {@link #DRAW} or {@link #PASS}.
+   *
+   * @param shuffler Shuffles the discard pile if a draw empties the draw pile.
+   */
+  public void apply(int move, Shuffler shuffler) {
+    if (move == DRAW) {
+      draw(shuffler);
+    } else if (move == PASS) {
+      nextSeat();
+    } else {
+      play(move);
+    }
+  }
+
+  /**
+   * Turns the undo log on or off. Turning it off empties it.
+   */
+  public void setRecording(boolean recording) {
+    this.recording = recording;
+    if (!recording) {
+      historySize = 0;
+      savedSize = 0;
+    }
+  }
+
+  /**
+   * Returns the length of the undo log, to return to later with {@link #undoTo(int)}.
+   */
+  public int getHistorySize() {
+    return historySize;
+  }
+
+  /**
+   * Takes back the last move recorded in the undo log: a card played, a pass, a reshuffle, or a
+   * single card drawn together with the reshuffle it needed.
+   */
+  public void undo() {
+    int entry = history[--historySize];
+    int data = (entry >>> 2) & 0xfff;
+    seat = entry >>> 14;
+    switch (entry & 3) {
+      case PLAYED:
+        hands[seat] |= 1L << data;
+        discardPileSize--;
+        winner = NO_WINNER;
+        break;
+      case DREW:
+        int card = data & (AFTER_RESHUFFLE - 1);
+        hands[seat] &= ~(1L << card);
+        drawPile[drawPileSize++] = (byte) card;
+        if ((data & AFTER_RESHUFFLE) != 0) {
+          undo();
+        }
+        break;
+      case RESHUFFLED:
+        int previousDrawPileSize = data & 0x3f;
+        int n = data >>> 6;
+        savedSize -= previousDrawPileSize + n;
+        discardPile[n] = discardPile[0];
+        System.arraycopy(saved, savedSize + previousDrawPileSize, discardPile, 0, n);
+        discardPileSize = n + 1;
+        System.arraycopy(saved, savedSize, drawPile, 0, previousDrawPileSize);
+        drawPileSize = previousDrawPileSize;
+        break;
+      default:
+        break;
+    }
+  }
+
+  /**
+   * Takes back moves until the undo log is back to the given length.
+   */
+  public void undoTo(int size) {
+    while (historySize > size) {
+      undo();
+    }
+  }
+
+  /**
+   * Adds an entry to the undo log for a change made by the player to move, if recording.
+   */
+  private void record(int kind, int data) {
+    if (!recording) {
+      return;
+    }
+    if (historySize == history.length) {
+      history = Arrays.copyOf(history, 2 * historySize);
+    }
+    history[historySize++] = kind | data << 2 | seat << 14;
+  }
+
+  /**
+   * Plays random legal cards for every player until the game is won or the turn limit is reached.
+   * A player who can't play draws until they can, and passes if the piles run out. The playout
+   * isn't recorded, and turns recording off, emptying the undo log.
+   *
+   * @return The index of the winning player, or {@link #NO_WINNER} if the limit was reached.
+   */
+  public int playout(Shuffler shuffler, int maxTurns) {
+    setRecording(false);
+    int passes = 0;
+    for (int turn = 0; turn < maxTurns && winner == NO_WINNER; turn++) {
+      long legal = getLegalMoves();
+      int card;
+      if (legal != 0) {
+        card = randomCard(legal, shuffler);
+      } else {
+        card = drawForMatch(shuffler);
+      }
+      if (card < 0) {
+        // Nobody can move once every player has passed in a row.
+        if (++passes == hands.length) {
+          break;
+        }
+        nextSeat();
+      } else {
+        passes = 0;
+        play(card);
+      }
+    }
+    return winner;
+  }
+
+  /**
+   * Returns the id of a card chosen uniformly from the given non-empty mask.
+   */
+  public static int randomCard(long cards, Shuffler shuffler) {
+    for (int skip = shuffler.nextInt(Long.bitCount(cards)); skip > 0; skip--) {
+      cards &= cards - 1;
+    }
+    return Long.numberOfTrailingZeros(cards);
+  }
+}
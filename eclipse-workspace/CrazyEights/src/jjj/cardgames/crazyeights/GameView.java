@@ -0,0 +1,73 @@
+package jjj.cardgames.crazyeights;
+
+/**
+ * A read-only view of a game of Crazy Eights from one player's seat. Shows only what that player
+ * may know: their own hand, the size of every hand, the discard pile and the size of the draw
+ * pile.
+ *
+ * @author Joshua Hardman
+ *
+ */
+public interface GameView {
+
+  /**
+   * Returns the number of players in the game.
+   */
+  int getAmountOfPlayers();
+
+  /**
+   * Returns the index of the player this view belongs to.
+   */
+  int getSeat();
+
+  /**
+   * Returns the mask of the cards in this player's hand.
+   */
+  long getHand();
+
+  /**
+   * Returns the number of cards held by the player with the given index.
+   */
+  int getHandSize(int seat);
+
+  /**
+   * Returns the card on top of the discard pile.
+   */
+  Card getCardToMatch();
+
+  /**
+   * Returns the mask of the cards in the discard pile, including the top card.
+   */
+  long getDiscards();
+
+  /**
+   * Returns the number of cards in the discard pile.
+   */
+  int getDiscardPileSize();
+
+  /**
+   * Returns the card at the given index of the discard pile, the top card being last. Reading the
+   * pile in order shows the cards played since it was last reshuffled.
+   */
+  Card getDiscard(int index);
+
+  /**
+   * Returns the number of cards in the draw pile.
+   */
+  int getDrawPileSize();
+
+  /**
+   * Returns the mask of the cards in this player's hand which may be played now.
+   */
+  long getLegalMoves();
+
+  /**
+   * Returns the table of legal plays for the rules being played.
+   */
+  MatchTable getMatchTable();
+
+  /**
+   * Returns what this player knows of where the cards they can't see are.
+   */
+  CardTracker getTracker();
+}
@@ -19,6 +19,9 @@ public class GameWindow extends JFrame {
   
   private static final long serialVersionUID = 515206293071492297L;
 
+  // The time in milliseconds each computer player searches before playing a card.
+  private static final long COMPUTER_MOVE_TIME = 200;
+
   private MainGamePanel mainGamePanel;
   private PlayerSelectionPanel playerSelectionPanel;
   private ArrayList<Player> playerList;
@@ -30,6 +33,9 @@ public class GameWindow extends JFrame {
     super(windowName);
     setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
 
+    // Starts decoding the card images while the welcome and player selection screens are up.
+    CardImageRepository.getInstance().load();
+
     // Sets the background colour of the frame.
     setBackground(new Color(0x088A4B));
 
@@ -75,7 +81,8 @@ public class GameWindow extends JFrame {
   }
 
   /**
-   * Adds players confirmed by the player selection panel to a list of players.
+   * Adds players confirmed by the player selection panel to a list of players. The computer plays
+   * for every player after Player One using tree search, solving the endgame exactly.
    */
   public void addPlayers() {
     playerList = new ArrayList<Player>();
@@ -95,6 +102,11 @@ public class GameWindow extends JFrame {
       Player playerFour = new Player(playerFourName);
       playerList.add(playerFour);
     }
+    int threads = Runtime.getRuntime().availableProcessors();
+    for (int i = 1; i < playerList.size(); i++) {
+      Strategy mcts = new MctsStrategy(COMPUTER_MOVE_TIME, threads);
+      playerList.get(i).setStrategy(new EndgameStrategy(mcts, COMPUTER_MOVE_TIME));
+    }
   }
 
   /**
@@ -0,0 +1,18 @@
+package jjj.cardgames.crazyeights;
+
+/**
+ * The baseline computer player: plays the first legal card, in card id order, without looking any
+ * further.
+ *
+ * @author Joshua Hardman
+ *
+ */
+public class GreedyStrategy implements Strategy {
+
+  /**
+   * Returns the legal card with the lowest id.
+   */
+  public Card chooseCard(GameView game, long deadline) {
+    return Card.of(Long.numberOfTrailingZeros(game.getLegalMoves()));
+  }
+}
@@ -0,0 +1,53 @@
+package jjj.cardgames.crazyeights;
+
+/**
+ * A computer player which scores each legal card with simple rules of thumb:
+ * <ul>
+ * <li>keep eights for when nothing else can be played,</li>
+ * <li>leave a top card that the rest of the hand can follow,</li>
+ * <li>leave a top card few unseen cards match, more so when the next player is close to going
+ * out.</li>
+ * </ul>
+ * Scoring takes microseconds, so the deadline is never approached.
+ *
+ * @author Joshua Hardman
+ *
+ */
+public class HeuristicStrategy implements Strategy {
+
+  /**
+   * Returns the legal card with the best score, preferring the lowest id on ties.
+   */
+  public Card chooseCard(GameView game, long deadline) {
+    MatchTable matchTable = game.getMatchTable();
+    long hand = game.getHand();
+    long legal = game.getLegalMoves();
+    long eights = CardMask.of(Rank.EIGHT);
+    // Cards neither in this hand nor discarded are held by opponents or in the draw pile.
+    long unseen = CardMask.DECK & ~hand & ~game.getDiscards();
+    int nextSeat = (game.getSeat() + 1) % game.getAmountOfPlayers();
+    int threatWeight = game.getHandSize(nextSeat) <= 2 ? 3 : 1;
+
+    Card best = null;
+    int bestScore = Integer.MIN_VALUE;
+    for (long bits = legal; bits != 0; bits &= bits - 1) {
+      Card card = Card.of(Long.numberOfTrailingZeros(bits));
+      long rest = hand & ~(1L << card.getId());
+      if (rest == 0) {
+        // Playing the last card wins the game.
+        return card;
+      }
+      long playable = matchTable.getPlayable(card);
+      int score = 4 * Long.bitCount(rest & playable)
+          - threatWeight * Long.bitCount(unseen & playable);
+      if ((eights & (1L << card.getId())) != 0 && (legal & ~eights) != 0) {
+        score -= 20;
+      }
+      if (score > bestScore) {
+        bestScore = score;
+        best = card;
+      }
+    }
+    return best;
+  }
+}
@@ -5,10 +5,8 @@ import java.awt.Font;
 import java.awt.FontMetrics;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
-import java.awt.Rectangle;
+import java.awt.GraphicsConfiguration;
 import java.awt.RenderingHints;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
 import java.awt.event.ComponentAdapter;
 import java.awt.event.ComponentEvent;
 import java.awt.event.MouseAdapter;
@@ -16,15 +14,15 @@ import java.awt.event.MouseEvent;
 import java.awt.geom.AffineTransform;
 import java.awt.image.AffineTransformOp;
 import java.awt.image.BufferedImage;
-import java.io.IOException;
-import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
-import javax.imageio.ImageIO;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import javax.swing.ImageIcon;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
-import javax.swing.Timer;
+import javax.swing.SwingUtilities;
 
 /**
  * Provides the in-game animation and GUI for the game Crazy Eights.
@@ -35,27 +33,47 @@ import javax.swing.Timer;
 public class MainGamePanel extends JPanel {
 
   private static final long serialVersionUID = -4204973079446072627L;
+  // The time a computer player's card takes to be nudged out or back.
+  private static final long NUDGE_MILLIS = 65;
+  // The time player one's card takes to slide up or down when hovered over.
+  private static final long HOVER_MILLIS = 100;
+  // The sprites of the atlas after the 52 card faces: the back, and the back turned on its side.
+  private static final int BACK_SPRITE = Card.DECK_SIZE;
+  private static final int SIDE_BACK_SPRITE = Card.DECK_SIZE + 1;
+  // The rotation of the West and East players' cards.
+  private static final double SIDE_ROTATION = Math.toRadians(90);
+  private static final Font NAME_FONT = new Font("Arial", Font.PLAIN, 18);
+  private static final Font GAME_OVER_FONT = new Font("Arial", Font.PLAIN, 60);
+  private static final Font WINNER_FONT = new Font("Arial", Font.BOLD, 42);
+
+  // Chooses the computer players' cards, so a strategy's search never holds up the frame clock.
+  private static final ExecutorService COMPUTER = Executors.newSingleThreadExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "computer-player");
+    thread.setDaemon(true);
+    return thread;
+  });
 
   private EightsLogic logic;
   private BufferedImage backOfCardImage;
-  private BufferedImage[][] cardImages;
+  private CardImageRepository images;
   private JLabel[][] cardLabels;
   private ArrayList<Player> playerList;
-  private InputStream inputStream;
   private int cardWidth;
   private int cardHeight;
   private CardCollection discardPile;
   private HashMap<JLabel, Card> cardLabelMap;
-  private Timer waitForDealer;
   private int cardYCoordinate;
-  private Timer computerPlayerWaitsForDealer;
-  private int timerDelay;
-  private Timer animateComputerPlayer;
+  private Animator animator;
+  private SpriteAtlas atlas;
+  // The table as it stands between game events, the logic's change count when it was drawn, and
+  // the player whose hand it leaves out.
+  private BufferedImage tableLayer;
+  private int tableLayerChanges;
+  private int tableLayerPlayer;
+  // The slide each card label is in the middle of, if any.
+  private HashMap<JLabel, Animator.Sequence> hovers;
   private Nudge nudger;
   private int nudge;
-  private int sequenceLimit;
-  private int reverseSequenceLimit;
-  private int cardPosition;
 
   public MainGamePanel(ArrayList<Player> playerList) {
 
@@ -67,26 +85,37 @@ public class MainGamePanel extends JPanel {
     this.playerList = playerList;
     logic = new EightsLogic(playerList);
 
-    // Builds a 2D array of card images.
-    build2DCardImageArray();
+    // Drives every animation from one frame clock.
+    animator = new Animator(this);
+    hovers = new HashMap<JLabel, Animator.Sequence>();
+
+    // Takes every card image from the images decoded once for the whole program.
+    images = CardImageRepository.getInstance();
 
     // Builds a 2D array of click-able JLabels with card images.
     build2DClickableCardImageArray();
 
-    // Loads a 'back of card' image.
-    inputStream = ClassLoader.getSystemResourceAsStream("b.gif");
-    try {
-      backOfCardImage = ImageIO.read(inputStream);
-    } catch (IOException ex) {
-    }
+    // Gets the shared 'back of card' image.
+    backOfCardImage = images.getBackImage();
 
     // The width and height of the card images.
     cardWidth = backOfCardImage.getWidth();
     cardHeight = backOfCardImage.getHeight();
 
+    // Packs every card drawn on the table into one sheet in the screen's format.
+    BufferedImage[] atlasSprites = new BufferedImage[Card.DECK_SIZE + 2];
+    for (int id = 0; id < Card.DECK_SIZE; id++) {
+      atlasSprites[id] = images.getImage(id);
+    }
+    atlasSprites[BACK_SPRITE] = backOfCardImage;
+    atlasSprites[SIDE_BACK_SPRITE] = rotate(backOfCardImage, SIDE_ROTATION);
+    atlas = new SpriteAtlas(atlasSprites);
+
     // Redraws Components when the frame size is changed
     addComponentListener(new ComponentAdapter() {
       public void componentResized(ComponentEvent event) {
+        cancelHovers();
+        invalidateTable();
         removeAll();
         addPlayerOneCards();
         revalidate();
@@ -99,29 +128,6 @@ public class MainGamePanel extends JPanel {
 
   }
 
-  /**
-   * Builds a 2D array of card images.
-   */
-  public void build2DCardImageArray() {
-    // The 2D array of images.
-    cardImages = new BufferedImage[13][4];
-    // A string used to reference the four card suits.
-    String suits = "cdhs";
-    // Adds the card images to the array at specified indexes.
-    for (Suit suit : Suit.values()) {
-      char c = suits.charAt(suit.ordinal());
-      for (Rank rank : Rank.values()) {
-        String s = String.format("%02d%c.gif", (rank.ordinal() + 1), c);
-        inputStream = ClassLoader.getSystemResourceAsStream(s);
-        try {
-          BufferedImage bi = ImageIO.read(inputStream);
-          cardImages[rank.ordinal()][suit.ordinal()] = bi;
-        } catch (IOException ex) {
-        }
-      }
-    }
-  }
-
   /**
    * Builds a 2D array of mapped and click-able card image JLabels and adds a listener to each
    * label.
@@ -131,129 +137,115 @@ public class MainGamePanel extends JPanel {
     cardLabels = new JLabel[13][4];
     // The hash map of labels and their corresponding Card values.
     cardLabelMap = new HashMap<JLabel, Card>(52, 1f);
-    String suits = "cdhs";
     for (Suit suit : Suit.values()) {
-      char c = suits.charAt(suit.ordinal());
       for (Rank rank : Rank.values()) {
-        String s = String.format("%02d%c.gif", (rank.ordinal() + 1), c);
-        inputStream = ClassLoader.getSystemResourceAsStream(s);
-        try {
-          // Gets the Buffered Image.
-          BufferedImage bi = ImageIO.read(inputStream);
-          // Makes the Buffered Image an Image Icon.
-          ImageIcon ii = new ImageIcon(bi);
-          // Makes the Image Icon a JLabel.
-          JLabel jl = new JLabel(ii);
-          // Uses the current rank and suit to instantiate a reference card which is then stored in
-          // the hash map along with the current label.
-          Card hashCard = new Card(rank, suit);
-          cardLabelMap.put(jl, hashCard);
-          // Adds a mouse listener to each label component which attempts to play the associated
-          // card when clicked on the GUI, and animates the label when the mouse is hovered over it
-          // during the player's turn.
-          jl.addMouseListener(new MouseAdapter() {
-
-            @Override
-            /**
-             * Attempts to play the associated card when clicked on the GUI.
-             */
-            public void mouseClicked(MouseEvent event) {
-              // Only executes two conditions: the game isn't over and it's player one's turn.
-              if (!logic.isOver() && logic.isPlayerOnesTurn()) {
-                // Retrieves the clicked label.
-                JLabel clickedLabel = (JLabel) event.getSource();
-                // Retrieves the clicked label's associated card.
-                Card hashCard = cardLabelMap.get(clickedLabel);
-                // Gets the rank of the associated card.
-                Rank hashCardRank = hashCard.getRank();
-                // Gets the suit of the associated card.
-                Suit hashCardSuit = hashCard.getSuit();
-                // Attempts to play the card with the corresponding rank and suit in the player's
-                // hand.
-                logic.takeTurn(hashCardRank, hashCardSuit);
-                // Removes all of the current cards.
-                removeAll();
-                // Redraws the set of cards minus the selected card if it was play-able.
-                addPlayerOneCards();
-                revalidate();
-                repaint();
-                // If the game isn't over and the player one's card was successfully played, play
-                // passes to the next player.
-                if (!logic.isOver() && !logic.isPlayerOnesTurn()) {
-                  logic.nextPlayer();
-                  computerPlayerPlay();
-                }
+        // Gets the shared Buffered Image.
+        BufferedImage bi = images.getImage(rank, suit);
+        // Makes the Buffered Image an Image Icon.
+        ImageIcon ii = new ImageIcon(bi);
+        // Makes the Image Icon a JLabel.
+        JLabel jl = new JLabel(ii);
+        // Uses the current rank and suit to look up the canonical card which is then stored in
+        // the hash map along with the current label.
+        Card hashCard = Card.of(rank, suit);
+        cardLabelMap.put(jl, hashCard);
+        // Adds a mouse listener to each label component which attempts to play the associated
+        // card when clicked on the GUI, and animates the label when the mouse is hovered over it
+        // during the player's turn.
+        jl.addMouseListener(new MouseAdapter() {
+
+          @Override
+          /**
+           * Attempts to play the associated card when clicked on the GUI.
+           */
+          public void mouseClicked(MouseEvent event) {
+            // Only executes two conditions: the game isn't over and it's player one's turn.
+            if (!logic.isOver() && logic.isPlayerOnesTurn()) {
+              // Retrieves the clicked label.
+              JLabel clickedLabel = (JLabel) event.getSource();
+              // Retrieves the clicked label's associated card.
+              Card hashCard = cardLabelMap.get(clickedLabel);
+              // Gets the rank of the associated card.
+              Rank hashCardRank = hashCard.getRank();
+              // Gets the suit of the associated card.
+              Suit hashCardSuit = hashCard.getSuit();
+              // Attempts to play the card with the corresponding rank and suit in the player's
+              // hand.
+              logic.takeTurn(hashCardRank, hashCardSuit);
+              // Removes all of the current cards.
+              cancelHovers();
+              removeAll();
+              // Redraws the set of cards minus the selected card if it was play-able.
+              addPlayerOneCards();
+              revalidate();
+              repaint();
+              // If the game isn't over and the player one's card was successfully played, play
+              // passes to the next player.
+              if (!logic.isOver() && !logic.isPlayerOnesTurn()) {
+                logic.nextPlayer();
+                computerPlayerPlay();
               }
             }
+          }
 
-            @Override
-            /**
-             * Nudges the card label upwards when the cursor hovers over it and it's player one's
-             * turn.
-             */
-            public void mouseEntered(MouseEvent event) {
-              if (logic.isPlayerOnesTurn()) {
-
-                JLabel card = (JLabel) event.getSource();
-                // Gets the rectangular dimensions of the card label.
-                Rectangle bounds = card.getBounds();
-                int xpos = (int) bounds.getX();
-                int ypos = (int) bounds.getY();
-                // An incremental height adjustment factor.
-                int yposADJ = -((int) bounds.getHeight() / 24);
-                // A height adjustment limit.
-                int yposMAX = (int) bounds.getY() - ((int) (5 * bounds.getHeight()) / 24);
-                // Incrementally increases the height of the label.
-                for (int i = ypos; i > yposMAX; i += yposADJ) {
-                  card.setBounds(xpos, i, cardWidth, cardHeight);
-                  // Paints while the event is being dispatched.
-                  paintImmediately(0, 0, getWidth(), getHeight());
-                  // Sets a small delay to make the animation noticeable.
-                  try {
-                    Thread.sleep(20);
-                  } catch (Exception ex) {
-                  }
-                }
-              }
+          @Override
+          /**
+           * Nudges the card label upwards when the cursor hovers over it and it's player one's
+           * turn.
+           */
+          public void mouseEntered(MouseEvent event) {
+            if (logic.isPlayerOnesTurn()) {
+              JLabel card = (JLabel) event.getSource();
+              // Raises the label by five twenty-fourths of its height.
+              hover(card, cardYCoordinate - (5 * card.getHeight()) / 24);
             }
+          }
 
-            @Override
-            /**
-             * Nudges the card label downwards when the cursor hovers over it and it's player one's
-             * turn.
-             */
-            public void mouseExited(MouseEvent event) {
-              // see mouseEntered method for explanatory notation.
-              if (logic.isPlayerOnesTurn()) {
-
-                JLabel card = (JLabel) event.getSource();
-                Rectangle bounds = card.getBounds();
-                int xpos = (int) bounds.getX();
-                int ypos = (int) bounds.getY();
-                int yposADJ = ((int) bounds.getHeight() / 24);
-                int yposMAX = (int) bounds.getY() + ((int) (5 * bounds.getHeight()) / 24);
-                if (ypos < cardYCoordinate) {
-                  for (int i = ypos; i < yposMAX; i += yposADJ) {
-
-                    card.setBounds(xpos, i, cardWidth, cardHeight);
-                    paintImmediately(0, 0, getWidth(), getHeight());
-                    try {
-                      Thread.sleep(20);
-                    } catch (Exception ex) {
-                    }
-                  }
-                }
+          @Override
+          /**
+           * Nudges the card label downwards when the cursor hovers over it and it's player one's
+           * turn.
+           */
+          public void mouseExited(MouseEvent event) {
+            if (logic.isPlayerOnesTurn()) {
+              JLabel card = (JLabel) event.getSource();
+              // Lowers the label back into the hand if it was raised.
+              if (card.getY() < cardYCoordinate) {
+                hover(card, cardYCoordinate);
               }
             }
-          });
-          // adds the label to the 2D JLabel array.
-          cardLabels[rank.ordinal()][suit.ordinal()] = jl;
-        } catch (IOException ex) {
-        }
+          }
+        });
+        // adds the label to the 2D JLabel array.
+        cardLabels[rank.ordinal()][suit.ordinal()] = jl;
       }
     }
   }
 
+  /**
+   * Slides the given card label up or down to the given height, taking over from any slide it is
+   * in the middle of.
+   */
+  private void hover(JLabel card, int y) {
+    Animator.Sequence slide = hovers.get(card);
+    if (slide != null) {
+      animator.cancel(slide);
+    }
+    Tween tween = new Tween(card.getY(), y, HOVER_MILLIS,
+        value -> card.setLocation(card.getX(), (int) value));
+    hovers.put(card, animator.play(tween));
+  }
+
+  /**
+   * Stops every card label sliding, before the labels are laid out again.
+   */
+  private void cancelHovers() {
+    for (Animator.Sequence slide : hovers.values()) {
+      animator.cancel(slide);
+    }
+    hovers.clear();
+  }
+
   /**
    * Adds player one's cards to the GUI.
    */
@@ -288,64 +280,44 @@ public class MainGamePanel extends JPanel {
    * card is dealt.
    */
   public void dealUntilMatchPlayerOne() {
-    // Adds an action listener which updates player one's hand when no cards match.
-    ActionListener dealToPlayerOne = new ActionListener() {
-
-      @Override
-      /**
-       * Updates player one's hand when no cards match.
-       */
-      public void actionPerformed(ActionEvent event) {
-        // Temporarily removes all of player one's cards.
-        removeAll();
-        // Draws a new card to player one's hand.
-        logic.drawForMatchCurrentPlayer();
-        // Adds all of player one's cards including the new card.
-        addPlayerOneCards();
-        revalidate();
-        repaint();
-        // Checks if player one's hand now has a match and deals again if not.
-        if (!logic.hasAMatch()) {
-          // Sets a timer delay between 500 - 700 ms.
-          timerDelay = ((int) (Math.random() * 200) + 500);
-          // Adds a timer which "waits" for the deal.
-          waitForDealer.setDelay(timerDelay);
-          waitForDealer.setRepeats(false);
-          waitForDealer.start();
-        }
-      }
-    };
-
-    // Checks if player one's initial hand has a match and deals a new card if not.
+    // Checks if player one's hand has a match and, after waiting for the dealer, deals a new card
+    // if not.
     if (!logic.hasAMatch()) {
-      // Sets a timer delay between 500 - 700 ms.
-      timerDelay = ((int) (Math.random() * 200) + 500);
-      // Adds a timer which "waits" for the deal.
-      waitForDealer = new Timer(timerDelay, dealToPlayerOne);
-      waitForDealer.setRepeats(false);
-      waitForDealer.start();
+      animator.after(dealerDelay(), this::dealToPlayerOne);
     }
   }
 
+  /**
+   * Updates player one's hand with a newly drawn card and deals again if it doesn't match.
+   */
+  private void dealToPlayerOne() {
+    // Temporarily removes all of player one's cards.
+    removeAll();
+    // Draws a new card to player one's hand.
+    logic.drawForMatchCurrentPlayer();
+    // Adds all of player one's cards including the new card.
+    addPlayerOneCards();
+    revalidate();
+    repaint();
+    dealUntilMatchPlayerOne();
+  }
+
   /**
    * Deals cards to a computer player until they have a matching card.
    */
   public void dealUntilMatchComputerPlayers() {
-    // Adds an action listener which updates player's hands when no cards match.
-    ActionListener dealToOtherPlayers = new ActionListener() {
-      public void actionPerformed(ActionEvent event) {
-        logic.drawForMatchCurrentPlayer();
-        revalidate();
-        repaint();
-        checkForMatch();
-      }
-    };
-    // Sets a timer delay between 500 - 700 ms.
-    timerDelay = ((int) (Math.random() * 200) + 500);
-    // Adds a timer which waits for the deal.
-    computerPlayerWaitsForDealer = new Timer(timerDelay, dealToOtherPlayers);
-    computerPlayerWaitsForDealer.setRepeats(false);
-    computerPlayerWaitsForDealer.start();
+    // Waits for the dealer, then deals and checks the hand again.
+    animator.after(dealerDelay(), this::dealToComputerPlayer);
+  }
+
+  /**
+   * Draws a card for the current computer player and checks it.
+   */
+  private void dealToComputerPlayer() {
+    logic.drawForMatchCurrentPlayer();
+    revalidate();
+    repaint();
+    checkForMatch();
   }
 
   /**
@@ -354,17 +326,19 @@ public class MainGamePanel extends JPanel {
    */
   public void checkForMatch() {
     if (!logic.hasAMatch()) {
-      // Sets a timer delay between 500 - 700 ms.
-      timerDelay = ((int) (Math.random() * 200) + 500);
-      // Adds a timer which "waits: for the deal.
-      computerPlayerWaitsForDealer.setDelay(timerDelay);
-      computerPlayerWaitsForDealer.setRepeats(false);
-      computerPlayerWaitsForDealer.start();
+      dealUntilMatchComputerPlayers();
     } else {
       computerPlayerPlay();
     }
   }
 
+  /**
+   * Returns a random wait for the dealer, between 500 - 700 ms.
+   */
+  private static long dealerDelay() {
+    return (long) (Math.random() * 200) + 500;
+  }
+
   /**
    * Draws a specified card at the given coordinates. x and y are in units of card width/height.
    * 
@@ -375,8 +349,7 @@ public class MainGamePanel extends JPanel {
    * @param y Specified y-coordinate.
    */
   public void drawCardImage(Graphics g, Rank rank, Suit suit, double x, double y) {
-    BufferedImage image = cardImages[rank.ordinal()][suit.ordinal()];
-    g.drawImage(image, (int) (x), (int) (y), null);
+    atlas.draw(g, getGraphicsConfiguration(), Card.id(rank, suit), (int) (x), (int) (y));
   }
 
   /**
@@ -388,26 +361,29 @@ public class MainGamePanel extends JPanel {
    * @param y Specified y-coordinate.
    */
   public void drawCardImage(Graphics g, double x, double y) {
-    g.drawImage(backOfCardImage, (int) (x), (int) (y), null);
+    atlas.draw(g, getGraphicsConfiguration(), BACK_SPRITE, (int) (x), (int) (y));
   }
 
   /**
-   * Draws a rotated 'back of card' image at the given coordinates. x and y are in units of card
-   * width/height.
+   * Draws a 'back of card' image turned on its side, as the West and East players hold their
+   * cards, at the given coordinates.
    * 
    * @param g The Graphics argument from paintComponent.
-   * @param rotation Specified rotation in radians.
    * @param x Specified x-coordinate.
    * @param y Specified y-coordinate.
    */
-  public void drawCardImage(Graphics g, double rotation, double x, double y) {
-    BufferedImage image = backOfCardImage;
-    double locationX = cardWidth;
-    double locationY = cardHeight;
-    // Method used to rotate the card.
-    AffineTransform tx = AffineTransform.getRotateInstance(rotation, locationX, locationY);
-    AffineTransformOp op = new AffineTransformOp(tx, AffineTransformOp.TYPE_BILINEAR);
-    g.drawImage(op.filter(image, null), (int) (x), (int) (y), null);
+  public void drawSideCardImage(Graphics g, double x, double y) {
+    atlas.draw(g, getGraphicsConfiguration(), SIDE_BACK_SPRITE, (int) (x), (int) (y));
+  }
+
+  /**
+   * Returns the given image rotated by the given angle in radians about its bottom-right corner
+   * with bilinear filtering. Parts moved above or left of the origin are cut off.
+   */
+  private static BufferedImage rotate(BufferedImage image, double rotation) {
+    AffineTransform tx =
+        AffineTransform.getRotateInstance(rotation, image.getWidth(), image.getHeight());
+    return new AffineTransformOp(tx, AffineTransformOp.TYPE_BILINEAR).filter(image, null);
   }
 
   /**
@@ -468,7 +444,8 @@ public class MainGamePanel extends JPanel {
   }
 
   /**
-   * Draws and updates the GUI
+   * Draws and updates the GUI. Between game events the table only changes where a card is being
+   * nudged, so everything else is drawn once into the table layer and copied on each frame.
    * 
    * @param g The Graphics argument from paintComponent.
    */
@@ -476,24 +453,20 @@ public class MainGamePanel extends JPanel {
     Graphics2D g2D = (Graphics2D) g;
     // Smoothes out fonts.
     g2D.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-    // Sets Font properties and draws Player names.
-    int fontSize = 18;
-    g.setFont(new Font("Arial", Font.PLAIN, fontSize));
     g.setColor(Color.white);
     // Paints when the game is over.
     if (logic.isOver()) {
       // Removes all components.
       removeAll();
       // Fills the screen with the background colour.
-      g.setColor(new Color(0x088A4B));
+      g.setColor(getBackground());
       g.fillRect(0, 0, getWidth(), getHeight());
       // Font settings
       g.setColor(Color.white);
-      fontSize = 60;
-      g.setFont(new Font("Arial", Font.PLAIN, fontSize));
+      g.setFont(GAME_OVER_FONT);
       FontMetrics metrics = g.getFontMetrics();
       // Game over message.
-      String gameOver = new String("Game Over");
+      String gameOver = "Game Over";
       // Provides coordinates relative to the panel size.
       int stringWidth = (int) metrics.stringWidth(gameOver);
       int gameOverXCoordinate = (getWidth() / 2) - (stringWidth / 2);
@@ -501,8 +474,7 @@ public class MainGamePanel extends JPanel {
       // Writes game over message to UI.
       g.drawString(gameOver, gameOverXCoordinate, gameOverYCoordinate);
       // New font settings.
-      fontSize = 42;
-      g.setFont(new Font("Arial", Font.BOLD, fontSize));
+      g.setFont(WINNER_FONT);
       metrics = g.getFontMetrics();
       // Winning player message.
       String winningPlayer = (logic.getCurrentPlayer().getName() + " wins!");
@@ -514,258 +486,261 @@ public class MainGamePanel extends JPanel {
       // Writes the winning player message to UI.
       g.drawString(winningPlayer, winnerXCoordinate, winnerYCoordinate);
       // Paints when the game isn't over.
-    } else {
-      // Draws the player's names.
-      drawNames(g);
-      // Draws the top of the discard pile in the centre of the table.
-      discardPile = logic.getDiscardPile();
-      if (discardPile.size() > 0) {
-        int topDiscardIndex = discardPile.size() - 1;
-        Card cardToPaint = discardPile.getCard(topDiscardIndex);
-        Rank rank = cardToPaint.getRank();
-        Suit suit = cardToPaint.getSuit();
-        double x = (getWidth() / 2) - (cardWidth / 2);
-        double y = (getHeight() / 2) - (cardHeight / 2);
-        drawCardImage(g, rank, suit, x, y);
+    } else if (getWidth() > 0 && getHeight() > 0) {
+      // The player whose cards are being nudged, or -1 if none.
+      int nudgedPlayer = nudger.getCurrentPlayerIndex();
+      // Redraws the table layer after a game event, a resize or a change of nudged hand.
+      if (tableLayer == null || tableLayerChanges != logic.getChangeCount()
+          || tableLayer.getWidth() != getWidth() || tableLayer.getHeight() != getHeight()
+          || tableLayerPlayer != nudgedPlayer) {
+        paintTableLayer(nudgedPlayer);
       }
-      // For loop draws the hand of each and every computer player in the game.
-      for (Player player : playerList) {
-        // Gets the player's hand.
-        CardCollection playersCards = player.getHand();
-        int amountOfPlayersCards = playersCards.size();
-        // Iterates through the player's hand.
-        for (int i = 0; i < amountOfPlayersCards; i++) {
-          // Card coordinates for the computer player to be displayed North.
-          double cardsNorthXCoordinate = getWidth() / 2 - cardWidth / 2
-              - (amountOfPlayersCards - 1) * cardWidth / 4 + i * cardWidth / 2;
-          double cardsNorthYCoordinate = getHeight() / 4 - cardHeight / 2;
-          // Card coordinates for the computer player to be displayed West.
-          double cardsWestXCoordinate = getWidth() / 4 - cardWidth - cardHeight / 2;
-          double cardsWestYCoordinate =
-              getHeight() / 2 - cardHeight / 2 - (cardHeight / 2 - cardWidth / 2)
-                  - (amountOfPlayersCards - 1) * cardWidth / 4 + i * cardWidth / 2;
-          // Card coordinates for the computer player to be displayed East.
-          double cardsEastXCoordinate = 3 * getWidth() / 4 - cardWidth - cardHeight / 2;
-          double cardsEastYCoordinate =
-              getHeight() / 2 - cardHeight / 2 - (cardHeight / 2 - cardWidth / 2)
-                  - (amountOfPlayersCards - 1) * cardWidth / 4 + i * cardWidth / 2;
-          // Draws the computer player's card in a 2-player game.
-          if (playerList.size() == 2) {
-            if (logic.getPlayerIndex(player) == 1) {
-              // Draws the card and enables card animation sequence.
-              nudge = nudger.nudgeCard(i, 1, cardPosition);
-              double x = cardsNorthXCoordinate;
-              double y = cardsNorthYCoordinate + nudge;
-              drawCardImage(g, x, y);
-            }
-          }
-          // Draws each computer player's card in a 3-player game.
-          if (playerList.size() == 3) {
-            if (logic.getPlayerIndex(player) == 1) {
-              // Draws the card and enables card animation sequence.
-              nudge = nudger.nudgeCard(i, 1, cardPosition);
-              double x = cardsWestXCoordinate + nudge;
-              double y = cardsWestYCoordinate;
-              double rotation = Math.toRadians(90);
-              drawCardImage(g, rotation, x, y);
-            }
-            if (logic.getPlayerIndex(player) == 2) {
-              // Draws the card and enables card animation sequence.
-              nudge = nudger.nudgeCard(i, 2, cardPosition);
-              double x = cardsNorthXCoordinate;
-              double y = cardsNorthYCoordinate + nudge;
-              drawCardImage(g, x, y);
-            }
-          }
-          // draws each computer player's card in a 4-player game.
-          if (playerList.size() == 4) {
-            if (logic.getPlayerIndex(player) == 1) {
-              // Draws the card and enables card animation sequence.
-              nudge = nudger.nudgeCard(i, 1, cardPosition);
-              double x = cardsWestXCoordinate + nudge;
-              double y = cardsWestYCoordinate;
-              double rotation = Math.toRadians(90);
-              drawCardImage(g, rotation, x, y);
-            }
-            if (logic.getPlayerIndex(player) == 2) {
-              // Draws the card and enables card animation sequence.
-              nudge = nudger.nudgeCard(i, 2, cardPosition);
-              double x = cardsNorthXCoordinate;
-              double y = cardsNorthYCoordinate + nudge;
-              drawCardImage(g, x, y);
-            }
-            if (logic.getPlayerIndex(player) == 3) {
-              // Draws the card and enables card animation sequence.
-              nudge = nudger.nudgeCard(i, 3, cardPosition);
-              double x = cardsEastXCoordinate - nudge;
-              double y = cardsEastYCoordinate;
-              double rotation = Math.toRadians(90);
-              drawCardImage(g, rotation, x, y);
-            }
-          }
-        }
+      g.drawImage(tableLayer, 0, 0, null);
+      // Draws the hand being nudged over the table.
+      if (nudgedPlayer >= 0) {
+        drawHand(g, playerList.get(nudgedPlayer));
       }
     }
   }
 
   /**
-   * Triggers the animation and underlying logic for a computer player's turn.
+   * Draws the background, the player's names, the top of the discard pile and every computer
+   * player's hand but the one being nudged into the table layer.
+   * 
+   * @param nudgedPlayer The index of the player whose hand is left out, or -1 for none.
    */
-  public void computerPlayerTakeTurn() {
-    // Sequentially animates the computer player's cards during their turn.
-    // A coin toss is used to determine whether the last card in sequence should be played or
-    // whether a reverse sequence should begin.
-    ActionListener animateComputerPlayerListener = new ActionListener() {
-      public void actionPerformed(ActionEvent event) {
-        // Gets players hand size.
-        int handSize = logic.getCurrentPlayer().getHand().size();
-        int indexOfLastCard = handSize - 1;
-        int indexOfSecondToLastCard = handSize - 2;
-        // Returns either 0 or 1. 0 for heads, 1 for tails.
-        int coinToss = (int) (Math.random() * 2);
-        // Sequence Animation
-        // If the players hand size is less than 7 cards, the limit of cards animated "in sequence"
-        // is set to a random number between zero and the index of the last card in sequence.
-        if (handSize < 7) {
-          sequenceLimit = (int) (Math.random() * (indexOfLastCard + 1));
-        }
-        // If the players hand size is more than or equal to 7 cards, the upper limit of cards
-        // animated is set to a random integer between zero and 6.
-        if (handSize >= 7) {
-          sequenceLimit = (int) ((Math.random() * 7));
+  private void paintTableLayer(int nudgedPlayer) {
+    if (tableLayer == null || tableLayer.getWidth() != getWidth()
+        || tableLayer.getHeight() != getHeight()) {
+      GraphicsConfiguration gc = getGraphicsConfiguration();
+      tableLayer = gc != null ? gc.createCompatibleImage(getWidth(), getHeight())
+          : new BufferedImage(getWidth(), getHeight(), BufferedImage.TYPE_INT_RGB);
+    }
+    // The layer lives in system memory, so the atlas copies its cards from the sheet kept there,
+    // leaving the copy in video memory for the frames drawn to the screen.
+    Graphics2D g = tableLayer.createGraphics();
+    g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+    g.setColor(getBackground());
+    g.fillRect(0, 0, getWidth(), getHeight());
+    // Sets Font properties and draws Player names.
+    g.setFont(NAME_FONT);
+    g.setColor(Color.white);
+    drawNames(g);
+    // Draws the top of the discard pile in the centre of the table.
+    discardPile = logic.getDiscardPile();
+    if (discardPile.size() > 0) {
+      int topDiscardIndex = discardPile.size() - 1;
+      Card cardToPaint = discardPile.getCard(topDiscardIndex);
+      Rank rank = cardToPaint.getRank();
+      Suit suit = cardToPaint.getSuit();
+      double x = (getWidth() / 2) - (cardWidth / 2);
+      double y = (getHeight() / 2) - (cardHeight / 2);
+      drawCardImage(g, rank, suit, x, y);
+    }
+    // Draws the hand of each computer player which is standing still.
+    for (Player player : playerList) {
+      if (logic.getPlayerIndex(player) != nudgedPlayer) {
+        drawHand(g, player);
+      }
+    }
+    g.dispose();
+    tableLayerPlayer = nudgedPlayer;
+    tableLayerChanges = logic.getChangeCount();
+  }
+
+  /**
+   * Drops the table layer, to be drawn again on the next paint. Game events need no call, as the
+   * layer is redrawn whenever the logic's change count moves on.
+   */
+  private void invalidateTable() {
+    tableLayer = null;
+  }
+
+  /**
+   * Draws the given computer player's hand by their side of the table, nudging the card of
+   * interest. Draws nothing for player one, whose cards are labels.
+   * 
+   * @param g The Graphics to draw to.
+   * @param player The player whose hand is drawn.
+   */
+  private void drawHand(Graphics g, Player player) {
+    // Gets the player's hand.
+    CardCollection playersCards = player.getHand();
+    int amountOfPlayersCards = playersCards.size();
+    // Iterates through the player's hand.
+    for (int i = 0; i < amountOfPlayersCards; i++) {
+      // Card coordinates for the computer player to be displayed North.
+      double cardsNorthXCoordinate = getWidth() / 2 - cardWidth / 2
+          - (amountOfPlayersCards - 1) * cardWidth / 4 + i * cardWidth / 2;
+      double cardsNorthYCoordinate = getHeight() / 4 - cardHeight / 2;
+      // Card coordinates for the computer player to be displayed West.
+      double cardsWestXCoordinate = getWidth() / 4 - cardWidth - cardHeight / 2;
+      double cardsWestYCoordinate =
+          getHeight() / 2 - cardHeight / 2 - (cardHeight / 2 - cardWidth / 2)
+              - (amountOfPlayersCards - 1) * cardWidth / 4 + i * cardWidth / 2;
+      // Card coordinates for the computer player to be displayed East.
+      double cardsEastXCoordinate = 3 * getWidth() / 4 - cardWidth - cardHeight / 2;
+      double cardsEastYCoordinate =
+          getHeight() / 2 - cardHeight / 2 - (cardHeight / 2 - cardWidth / 2)
+              - (amountOfPlayersCards - 1) * cardWidth / 4 + i * cardWidth / 2;
+      // Draws the computer player's card in a 2-player game.
+      if (playerList.size() == 2) {
+        if (logic.getPlayerIndex(player) == 1) {
+          // Draws the card and enables card animation sequence.
+          nudge = nudger.nudgeCard(i, 1);
+          double x = cardsNorthXCoordinate;
+          double y = cardsNorthYCoordinate + nudge;
+          drawCardImage(g, x, y);
         }
-        // For each card within the sequence limit.
-        for (int i = 0; i <= sequenceLimit; i++) {
-          // Sets the corresponding paint card index and player index to the current card index /
-          // player index.
-          nudger.setCardIndex(i);
-          nudger.setCurrentPlayerIndex(logic.getPlayerIndex(logic.getCurrentPlayer()));
-          // Animates positive card nudge.
-          for (int n = 0; n < 5; n++) {
-            // Used to position the card nudge call in paintComponent().
-            cardPosition = n;
-            revalidate();
-            paintImmediately(0, 0, getWidth(), getHeight());
-            // Leaves at least 13ms between each animation 'frame'.
-            try {
-              Thread.sleep(13);
-            } catch (InterruptedException e) {
-              e.printStackTrace();
-            }
-          }
-          // Animates negative card nudge if any of the following are true:
-          // The current card index is below the sequence limit.
-          // Or the index of the last card equals the sequence limit and "coin toss" is heads.
-          if ((i < sequenceLimit) || (indexOfLastCard == sequenceLimit) && (coinToss == 0)) {
-            for (int n = 4; n >= 0; n--) {
-              // Used to position the card nudge call in paintComponent().
-              cardPosition = n;
-              revalidate();
-              paintImmediately(0, 0, getWidth(), getHeight());
-              // Leaves at least 13ms between each animation 'frame'.
-              try {
-                Thread.sleep(13);
-              } catch (InterruptedException e) {
-                e.printStackTrace();
-              }
-            }
-          }
-          // Waits a random amount of time between 50 and 400ms for next card to be animated.
-          try {
-            int sleepTime = (int) ((Math.random() * 350) + 50);
-            Thread.sleep(sleepTime);
-          } catch (InterruptedException e) {
-            e.printStackTrace();
-          }
+      }
+      // Draws each computer player's card in a 3-player game.
+      if (playerList.size() == 3) {
+        if (logic.getPlayerIndex(player) == 1) {
+          // Draws the card and enables card animation sequence.
+          nudge = nudger.nudgeCard(i, 1);
+          double x = cardsWestXCoordinate + nudge;
+          double y = cardsWestYCoordinate;
+          drawSideCardImage(g, x, y);
         }
-        // Reverse Sequence Animation
-        // If the players hand size is less than 7 cards and more than 1 and the sequence limit
-        // equals the index of the last card and the coin toss lands heads, a limit of cards
-        // animated "in reverse sequence" is set to a random number between half the hand size and
-        // the index of the second to last card in the sequence (as the last card doesn't need
-        // re-animating).
-        if (((handSize < 7) && (handSize > 1)) && (indexOfLastCard == sequenceLimit)
-            && (coinToss == 0)) {
-          reverseSequenceLimit = (int) ((Math.random() * indexOfSecondToLastCard) + (handSize / 2));
-          // Sets the card index to the previous card in the sequence and animates "backwards" to
-          // the lower limit.
-          for (int i = indexOfSecondToLastCard; i >= reverseSequenceLimit; i--) {
-            nudger.setCardIndex(i);
-            nudger.setCurrentPlayerIndex(logic.getPlayerIndex(logic.getCurrentPlayer()));
-            // Animates positive card nudge.
-            for (int n = 0; n < 5; n++) {
-              // Used to position the card nudge call in paintComponent().
-              cardPosition = n;
-              revalidate();
-              paintImmediately(0, 0, getWidth(), getHeight());
-              try {
-                // Leaves at least 13ms between each animation 'frame'.
-                Thread.sleep(13);
-              } catch (InterruptedException e) {
-                e.printStackTrace();
-              }
-            }
-            // Animates negative card nudge with the exception of the last card in sequence.
-            if (i > (reverseSequenceLimit)) {
-              for (int n = 4; n >= 0; n--) {
-                // Used to position the card nudge call in paintComponent().
-                cardPosition = n;
-                revalidate();
-                paintImmediately(0, 0, getWidth(), getHeight());
-                try {
-                  // Leaves at least 13ms between each animation 'frame'.
-                  Thread.sleep(13);
-                } catch (InterruptedException e) {
-                  e.printStackTrace();
-                }
-              }
-            }
-            // Waits a random amount of time between 50 and 400ms for next card to be animated.
-            try {
-              int sleepTime = (int) ((Math.random() * 350) + 50);
-              Thread.sleep(sleepTime);
-            } catch (InterruptedException e) {
-              e.printStackTrace();
-            }
-          }
+        if (logic.getPlayerIndex(player) == 2) {
+          // Draws the card and enables card animation sequence.
+          nudge = nudger.nudgeCard(i, 2);
+          double x = cardsNorthXCoordinate;
+          double y = cardsNorthYCoordinate + nudge;
+          drawCardImage(g, x, y);
         }
-        // Waits a random amount of time between 100 and 150ms for card to be played.
-        try {
-          int sleepTime = (int) ((Math.random() * 50) + 100);
-          Thread.sleep(sleepTime);
-        } catch (InterruptedException e) {
-          e.printStackTrace();
+      }
+      // draws each computer player's card in a 4-player game.
+      if (playerList.size() == 4) {
+        if (logic.getPlayerIndex(player) == 1) {
+          // Draws the card and enables card animation sequence.
+          nudge = nudger.nudgeCard(i, 1);
+          double x = cardsWestXCoordinate + nudge;
+          double y = cardsWestYCoordinate;
+          drawSideCardImage(g, x, y);
         }
-        // Resets the "nudger" to default values.
-        nudger.reset();
-        // Updates the logic.
-        logic.takeTurn();
-        if (!logic.isOver()) {
-          logic.nextPlayer();
-        } else {
-          // Draws final screen if logic is over.
-          revalidate();
-          repaint();
+        if (logic.getPlayerIndex(player) == 2) {
+          // Draws the card and enables card animation sequence.
+          nudge = nudger.nudgeCard(i, 2);
+          double x = cardsNorthXCoordinate;
+          double y = cardsNorthYCoordinate + nudge;
+          drawCardImage(g, x, y);
         }
-        // Transitions from computer player's turn to player's turn if the current computer player
-        // is the last in sequence.
-        if (logic.isPlayerOnesTurn()) {
-          revalidate();
-          repaint();
-          primePlayerOne();
-        } else {
-          // Otherwise transitions to the next computer player's turn.
-          revalidate();
-          repaint();
-          computerPlayerPlay();
+        if (logic.getPlayerIndex(player) == 3) {
+          // Draws the card and enables card animation sequence.
+          nudge = nudger.nudgeCard(i, 3);
+          double x = cardsEastXCoordinate - nudge;
+          double y = cardsEastYCoordinate;
+          drawSideCardImage(g, x, y);
         }
       }
-    };
-    // Initialises and starts the animation timer.
-    timerDelay = (int) ((Math.random() * 200) + 500);
-    animateComputerPlayer = new Timer(timerDelay, animateComputerPlayerListener);
-    animateComputerPlayer.setRepeats(false);
-    animateComputerPlayer.start();
+    }
+  }
+
+  /**
+   * Triggers the animation and underlying logic for a computer player's turn.
+   */
+  public void computerPlayerTakeTurn() {
+    // Chooses the card on another thread while the nudges play. Nothing changes the game until the
+    // last step of the turn plays the card.
+    CompletableFuture<Card> move = CompletableFuture.supplyAsync(logic::chooseCard, COMPUTER);
+    // Sequentially animates the computer player's cards during their turn, scheduled on the frame
+    // clock rather than slept through so the GUI keeps responding.
+    // A coin toss is used to determine whether the last card in sequence should be played or
+    // whether a reverse sequence should begin.
+    int player = logic.getPlayerIndex(logic.getCurrentPlayer());
+    // Gets players hand size.
+    int handSize = logic.getCurrentPlayer().getHand().size();
+    int indexOfLastCard = handSize - 1;
+    int indexOfSecondToLastCard = handSize - 2;
+    // Returns either 0 or 1. 0 for heads, 1 for tails.
+    int coinToss = (int) (Math.random() * 2);
+    // Waits between 500 - 700 ms before starting.
+    Animator.Sequence turn = new Animator.Sequence().pause((long) (Math.random() * 200) + 500);
+    // Sequence Animation
+    // If the players hand size is less than 7 cards, the limit of cards animated "in sequence"
+    // is set to a random number between zero and the index of the last card in sequence.
+    // Otherwise the upper limit of cards animated is set to a random integer between zero and 6.
+    int sequenceLimit = handSize < 7 ? (int) (Math.random() * (indexOfLastCard + 1))
+        : (int) (Math.random() * 7);
+    // For each card within the sequence limit.
+    for (int i = 0; i <= sequenceLimit; i++) {
+      // Animates negative card nudge if any of the following are true:
+      // The current card index is below the sequence limit.
+      // Or the index of the last card equals the sequence limit and "coin toss" is heads.
+      boolean back = (i < sequenceLimit) || (indexOfLastCard == sequenceLimit) && (coinToss == 0);
+      addNudge(turn, player, i, back);
+      // Waits a random amount of time between 50 and 400ms for next card to be animated.
+      turn.pause((long) (Math.random() * 350) + 50);
+    }
+    // Reverse Sequence Animation
+    // If the players hand size is less than 7 cards and more than 1 and the sequence limit
+    // equals the index of the last card and the coin toss lands heads, a limit of cards
+    // animated "in reverse sequence" is set to a random number between half the hand size and
+    // the index of the second to last card in the sequence (as the last card doesn't need
+    // re-animating).
+    if (((handSize < 7) && (handSize > 1)) && (indexOfLastCard == sequenceLimit)
+        && (coinToss == 0)) {
+      int reverseSequenceLimit = (int) ((Math.random() * indexOfSecondToLastCard) + (handSize / 2));
+      // Animates "backwards" to the lower limit, bringing back every card but the last.
+      for (int i = indexOfSecondToLastCard; i >= reverseSequenceLimit; i--) {
+        addNudge(turn, player, i, i > reverseSequenceLimit);
+        turn.pause((long) (Math.random() * 350) + 50);
+      }
+    }
+    // Waits a random amount of time between 100 and 150ms for card to be played.
+    turn.pause((long) (Math.random() * 50) + 100);
+    // Plays the card on the event thread once it has been chosen, at once if the search is done. A
+    // strategy which fails forfeits to the first legal card, as an illegal choice does.
+    turn.then(() -> move.exceptionally(ex -> null)
+        .thenAcceptAsync(this::finishComputerPlayerTurn, SwingUtilities::invokeLater));
+    animator.play(turn);
+  }
+
+  /**
+   * Adds the nudge of one of a computer player's cards to their turn: out, then back in if asked.
+   */
+  private void addNudge(Animator.Sequence turn, int player, int cardIndex, boolean back) {
+    // Sets the corresponding paint card index and player index to the current card index /
+    // player index.
+    turn.then(() -> {
+      nudger.setCardIndex(cardIndex);
+      nudger.setCurrentPlayerIndex(player);
+    });
+    turn.tween(nudger.nudge(true, NUDGE_MILLIS));
+    if (back) {
+      turn.tween(nudger.nudge(false, NUDGE_MILLIS));
+    }
+  }
+
+  /**
+   * Plays the computer player's chosen card once their animation has finished and passes the turn
+   * on.
+   */
+  private void finishComputerPlayerTurn(Card chosen) {
+    // Resets the "nudger" to default values.
+    nudger.reset();
+    // Updates the logic.
+    logic.takeTurn(chosen);
+    if (!logic.isOver()) {
+      logic.nextPlayer();
+    } else {
+      // Draws final screen if logic is over.
+      revalidate();
+      repaint();
+    }
+    // Transitions from computer player's turn to player's turn if the current computer player
+    // is the last in sequence.
+    if (logic.isPlayerOnesTurn()) {
+      revalidate();
+      repaint();
+      primePlayerOne();
+    } else {
+      // Otherwise transitions to the next computer player's turn.
+      revalidate();
+      repaint();
+      computerPlayerPlay();
+    }
   }
 
   /**
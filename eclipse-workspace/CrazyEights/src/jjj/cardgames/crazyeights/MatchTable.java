@@ -0,0 +1,48 @@
+package jjj.cardgames.crazyeights;
+
+/**
+ * A precomputed table of legal plays for the rules of Crazy Eights.
+ *
+ * For each card that can sit on top of the discard pile the table holds the mask of every card
+ * which may be played on it, so checking a whole hand is one lookup and one AND.
+ *
+ * @author Joshua Hardman
+ *
+ */
+public class MatchTable {
+
+  /**
+   * The table for the standard rules, where eights are wild.
+   */
+  public static final MatchTable STANDARD = new MatchTable(Rank.EIGHT);
+
+  // The mask of playable cards, indexed by the id of the card to match.
+  private final long[] playable;
+
+  /**
+   * Builds the table for a rule set where cards match on rank or suit and the given rank is wild.
+   */
+  public MatchTable(Rank wildRank) {
+    playable = new long[Card.DECK_SIZE];
+    long wildCards = CardMask.of(wildRank);
+    for (int id = 0; id < Card.DECK_SIZE; id++) {
+      Card cardToMatch = Card.of(id);
+      playable[id] = CardMask.of(cardToMatch.getRank()) | CardMask.of(cardToMatch.getSuit())
+          | wildCards;
+    }
+  }
+
+  /**
+   * Returns the mask of all cards which may be played on the given card.
+   */
+  public long getPlayable(Card cardToMatch) {
+    return playable[cardToMatch.getId()];
+  }
+
+  /**
+   * Confirms whether cards match according to the rules of this table.
+   */
+  public boolean matches(Card card, Card cardToMatch) {
+    return (playable[cardToMatch.getId()] & (1L << card.getId())) != 0;
+  }
+}
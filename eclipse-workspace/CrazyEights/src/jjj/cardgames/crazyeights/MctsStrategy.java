@@ -0,0 +1,360 @@
+package jjj.cardgames.crazyeights;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * A computer player using information-set Monte Carlo tree search.
+ *
+ * Each search iteration deals the cards this player can't see, the opponents' hands and the order
+ * of the draw pile, at random but consistent with what the player has seen, then walks a tree of
+ * observed plays and finishes the game with random playouts. Several workers search their own
+ * trees in parallel until the move time runs out and their visit counts are summed to choose the
+ * card. After each move the workers keep the part of their tree matching the plays that followed.
+ *
+ * @author Joshua Hardman
+ *
+ */
+public class MctsStrategy implements Strategy {
+
+  // Weighs exploring rarely tried cards against exploiting the best so far.
+  private static final double EXPLORATION = 0.7;
+  // Abandons playouts which go on far longer than real games.
+  private static final int MAX_PLAYOUT_TURNS = 500;
+  // Time kept back from the deadline for gathering the workers' results.
+  private static final long DEADLINE_MARGIN = 2000000L;
+
+  // Runs the helper workers of every search, so idle threads are shared between players.
+  private static final ExecutorService POOL = Executors.newCachedThreadPool(runnable -> {
+    Thread thread = new Thread(runnable, "mcts-worker");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  private long moveTime;
+  private Worker[] workers;
+  // What this player saw at their last decision, used to find the subtree to reuse.
+  private int lastSeat;
+  private int lastAmountOfPlayers;
+  private int lastDiscardPileSize;
+  private int lastCard;
+
+  /**
+   * Constructs a player which searches for up to the given time per move on the given number of
+   * threads.
+   */
+  public MctsStrategy(long moveMillis, int threads) {
+    this(moveMillis, threads, new Shuffler());
+  }
+
+  /**
+   * Constructs a player which searches for up to the given time per move on the given number of
+   * threads, each drawing random numbers from its own stream split from the given shuffler.
+   */
+  public MctsStrategy(long moveMillis, int threads, Shuffler shuffler) {
+    this.moveTime = moveMillis * 1000000L;
+    this.workers = new Worker[threads];
+    for (int i = 0; i < threads; i++) {
+      workers[i] = new Worker(shuffler.split());
+    }
+    this.lastCard = -1;
+  }
+
+  /**
+   * Searches until the move time or the deadline runs out and returns the most visited card.
+   */
+  public Card chooseCard(GameView game, long deadline) {
+    long legal = game.getLegalMoves();
+    int[] plays = observePlays(game);
+    for (Worker worker : workers) {
+      worker.prepare(game, plays);
+    }
+    int card;
+    if (Long.bitCount(legal) == 1) {
+      card = Long.numberOfTrailingZeros(legal);
+    } else {
+      search(Math.min(deadline, System.nanoTime() + moveTime) - DEADLINE_MARGIN);
+      card = mostVisited(legal);
+    }
+    lastSeat = game.getSeat();
+    lastAmountOfPlayers = game.getAmountOfPlayers();
+    lastDiscardPileSize = game.getDiscardPileSize() + 1;
+    lastCard = card;
+    return Card.of(card);
+  }
+
+  /**
+   * Returns the cards played since this player's last decision, starting with their own, or null
+   * if they can't be read from the discard pile.
+   */
+  private int[] observePlays(GameView game) {
+    if (lastCard < 0 || game.getSeat() != lastSeat
+        || game.getAmountOfPlayers() != lastAmountOfPlayers) {
+      return null;
+    }
+    // Every opponent plays one card between two of our turns unless the pile was reshuffled.
+    int opponentPlays = game.getDiscardPileSize() - lastDiscardPileSize;
+    if (opponentPlays != lastAmountOfPlayers - 1
+        || game.getDiscard(lastDiscardPileSize - 1).getId() != lastCard) {
+      return null;
+    }
+    int[] plays = new int[opponentPlays + 1];
+    plays[0] = lastCard;
+    for (int i = 0; i < opponentPlays; i++) {
+      plays[i + 1] = game.getDiscard(lastDiscardPileSize + i).getId();
+    }
+    return plays;
+  }
+
+  /**
+   * Runs every worker until the given time, one on the calling thread and the rest in the pool.
+   */
+  private void search(long stop) {
+    Future<?>[] futures = new Future<?>[workers.length];
+    for (int i = 1; i < workers.length; i++) {
+      Worker worker = workers[i];
+      futures[i] = POOL.submit(() -> worker.search(stop));
+    }
+    workers[0].search(stop);
+    try {
+      for (int i = 1; i < futures.length; i++) {
+        futures[i].get();
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException ex) {
+      throw new IllegalStateException("MCTS worker failed", ex.getCause());
+    }
+  }
+
+  /**
+   * Returns the legal card visited most often across all workers' trees.
+   */
+  private int mostVisited(long legal) {
+    int best = Long.numberOfTrailingZeros(legal);
+    long bestVisits = -1;
+    for (long bits = legal; bits != 0; bits &= bits - 1) {
+      int card = Long.numberOfTrailingZeros(bits);
+      long visits = 0;
+      for (Worker worker : workers) {
+        Node child = worker.root.child(card);
+        if (child != null) {
+          visits += child.visits;
+        }
+      }
+      if (visits > bestVisits) {
+        bestVisits = visits;
+        best = card;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Searches its own tree on one thread.
+   */
+  private static class Worker {
+
+    private Shuffler shuffler;
+    private Node root;
+    // The known part of the game, copied into the working state each iteration.
+    private GameState known;
+    private GameState state;
+    // The cards this player can't see, dealt afresh each iteration within what they know.
+    private CardTracker tracker;
+    private byte[] unseen;
+    private int unseenSize;
+    private long[] hands;
+    private byte[] drawPile;
+    private Node[] path;
+
+    Worker(Shuffler shuffler) {
+      this.shuffler = shuffler;
+      this.unseen = new byte[Card.DECK_SIZE];
+      this.drawPile = new byte[Card.DECK_SIZE];
+      this.path = new Node[64];
+    }
+
+    /**
+     * Records what the player can see and moves the root down the tree along the given plays, or
+     * starts a new tree if they are null or lead outside it.
+     */
+    void prepare(GameView game, int[] plays) {
+      int amountOfPlayers = game.getAmountOfPlayers();
+      if (known == null || known.getAmountOfPlayers() != amountOfPlayers) {
+        known = new GameState(amountOfPlayers, game.getMatchTable());
+        state = new GameState(amountOfPlayers, game.getMatchTable());
+        hands = new long[amountOfPlayers];
+      }
+      tracker = game.getTracker();
+      for (int i = 0; i < amountOfPlayers; i++) {
+        known.setHand(i, 0L);
+      }
+      known.setHand(game.getSeat(), game.getHand());
+      known.setDiscardPile(game.getDiscards(), game.getCardToMatch());
+      known.setSeat(game.getSeat());
+      unseenSize = 0;
+      for (long bits = tracker.getUnseen(); bits != 0; bits &= bits - 1) {
+        unseen[unseenSize++] = (byte) Long.numberOfTrailingZeros(bits);
+      }
+
+      Node node = plays == null ? null : root;
+      for (int i = 0; node != null && plays != null && i < plays.length; i++) {
+        node = node.child(plays[i]);
+      }
+      root = node != null ? node : new Node(-1, -1);
+    }
+
+    /**
+     * Runs search iterations until the given time.
+     */
+    void search(long stop) {
+      do {
+        for (int i = 0; i < 16; i++) {
+          iterate();
+        }
+      } while (System.nanoTime() < stop);
+    }
+
+    /**
+     * Deals the unseen cards at random and plays one game down the tree and out to the end.
+     */
+    private void iterate() {
+      determinize();
+      Node node = root;
+      int depth = 0;
+      path[depth++] = node;
+      while (!state.isOver()) {
+        int mover = state.getSeat();
+        long legal = state.getLegalMoves();
+        Node child;
+        if (legal == 0) {
+          // Drawing is forced, so the card played is chance rather than choice.
+          int card = state.drawForMatch(shuffler);
+          if (card < 0) {
+            break;
+          }
+          child = node.child(card);
+          state.play(card);
+          if (child == null) {
+            child = node.addChild(card, mover);
+            depth = push(child, depth);
+            break;
+          }
+        } else {
+          for (long bits = legal & node.expanded; bits != 0; bits &= bits - 1) {
+            node.children[Long.numberOfTrailingZeros(bits)].availability++;
+          }
+          long unexpanded = legal & ~node.expanded;
+          if (unexpanded != 0) {
+            int card = GameState.randomCard(unexpanded, shuffler);
+            state.play(card);
+            depth = push(node.addChild(card, mover), depth);
+            break;
+          }
+          child = select(node, legal);
+          state.play(child.card);
+        }
+        depth = push(child, depth);
+        node = child;
+      }
+      int winner = state.isOver() ? state.getWinner() : state.playout(shuffler, MAX_PLAYOUT_TURNS);
+      for (int i = 0; i < depth; i++) {
+        Node visited = path[i];
+        visited.visits++;
+        if (visited.seat == winner) {
+          visited.wins++;
+        }
+      }
+    }
+
+    /**
+     * Sets the working state to the known game with the unseen cards dealt at random, each
+     * opponent getting only cards they could be holding.
+     */
+    private void determinize() {
+      state.copyFrom(known);
+      shuffler.shuffle(unseen, 0, unseenSize);
+      int rest = tracker.deal(unseen, hands, drawPile);
+      for (int i = 0; i < hands.length; i++) {
+        state.setHand(i, hands[i]);
+      }
+      state.setDrawPile(drawPile, 0, rest);
+    }
+
+    /**
+     * Returns the legal child with the best upper confidence bound.
+     */
+    private Node select(Node node, long legal) {
+      Node best = null;
+      double bestBound = Double.NEGATIVE_INFINITY;
+      for (long bits = legal; bits != 0; bits &= bits - 1) {
+        Node child = node.children[Long.numberOfTrailingZeros(bits)];
+        double bound = (double) child.wins / child.visits
+            + EXPLORATION * Math.sqrt(Math.log(child.availability) / child.visits);
+        if (bound > bestBound) {
+          bestBound = bound;
+          best = child;
+        }
+      }
+      return best;
+    }
+
+    /**
+     * Adds the node to the path, growing it if needed, and returns the new depth.
+     */
+    private int push(Node node, int depth) {
+      if (depth == path.length) {
+        path = Arrays.copyOf(path, depth * 2);
+      }
+      path[depth] = node;
+      return depth + 1;
+    }
+  }
+
+  /**
+   * A point in the tree reached by playing a card, with the results of the games through it.
+   */
+  private static class Node {
+
+    private int card;
+    // The player who played the card leading here, whose wins are counted.
+    private int seat;
+    private int visits;
+    private int wins;
+    // How many times this card could have been chosen at the parent.
+    private int availability;
+    // The cards with a child node.
+    private long expanded;
+    private Node[] children;
+
+    Node(int card, int seat) {
+      this.card = card;
+      this.seat = seat;
+    }
+
+    /**
+     * Returns the child reached by playing the given card, or null if there isn't one yet.
+     */
+    Node child(int card) {
+      return (expanded & (1L << card)) != 0 ? children[card] : null;
+    }
+
+    /**
+     * Creates and returns the child reached by the given player playing the given card.
+     */
+    Node addChild(int card, int seat) {
+      if (children == null) {
+        children = new Node[Card.DECK_SIZE];
+      }
+      Node child = new Node(card, seat);
+      child.availability = 1;
+      children[card] = child;
+      expanded |= 1L << card;
+      return child;
+    }
+  }
+}
@@ -1,14 +1,12 @@
 package jjj.cardgames.crazyeights;
 
 import java.awt.image.BufferedImage;
-import java.io.IOException;
-import java.io.InputStream;
-import javax.imageio.ImageIO;
 
 /**
  * 
  * Holds information about a given card index and current player index and contains a method which
- * can be used to nudge the position of a individual card on the GUI.
+ * can be used to nudge the position of a individual card on the GUI. How far the card is nudged is
+ * a fraction from 0 to 1, set frame by frame by a {@link Tween}.
  * 
  * @author Joshua Hardman
  *
@@ -19,19 +17,15 @@ public class Nudge {
   private int currentPlayerIndex;
   private int cardHeight;
   private int nudge;
+  private double offset;
   private BufferedImage sampleCard;
-  private InputStream inputStream;
 
   public Nudge() {
     this.cardIndex = -1;
     this.currentPlayerIndex = -1;
 
     // Gets a sample card and uses height dimension to provide the "nudge factor".
-    inputStream = ClassLoader.getSystemResourceAsStream("b.gif");
-    try {
-      sampleCard = ImageIO.read(inputStream);
-    } catch (IOException ex) {
-    }
+    sampleCard = CardImageRepository.getInstance().getBackImage();
     cardHeight = sampleCard.getHeight();
     nudge = 5 * cardHeight / 24;
 
@@ -43,11 +37,7 @@ public class Nudge {
     this.currentPlayerIndex = currentPlayerIndex;
 
     // Gets a sample card and uses height dimension to provide the "nudge factor".
-    inputStream = ClassLoader.getSystemResourceAsStream("b.gif");
-    try {
-      sampleCard = ImageIO.read(inputStream);
-    } catch (IOException ex) {
-    }
+    sampleCard = CardImageRepository.getInstance().getBackImage();
     cardHeight = sampleCard.getHeight();
     nudge = 5 * cardHeight / 24;
 
@@ -71,6 +61,32 @@ public class Nudge {
     this.currentPlayerIndex = currentPlayerIndex;
   }
   
+  /**
+   * Returns the player index of interest, or -1 if none is set.
+   */
+  public int getCurrentPlayerIndex() {
+    return currentPlayerIndex;
+  }
+
+  /**
+   * Sets how far the card of interest is nudged, from 0 for not at all to 1 for fully.
+   * 
+   * @param offset The fraction of the full nudge.
+   */
+  public void setOffset(double offset) {
+    this.offset = offset;
+  }
+
+  /**
+   * Returns a tween nudging the card of interest out over the given time, or back in.
+   * 
+   * @param out True to nudge the card out, false to bring it back.
+   * @param millis The length of the nudge in milliseconds.
+   */
+  public Tween nudge(boolean out, long millis) {
+    return new Tween(out ? 0 : 1, out ? 1 : 0, millis, this::setOffset);
+  }
+
   /**
    * Provides a value used to graphically reposition the card of the given player.
    * 
@@ -78,9 +94,9 @@ public class Nudge {
    * @param PlayerIndex The player index of interest.
    * @return The value used to graphically reposition the card of the given player.
    */
-  public int nudgeCard(int cardIndex, int PlayerIndex, int cardPosition) {
+  public int nudgeCard(int cardIndex, int PlayerIndex) {
     if (this.cardIndex == cardIndex && this.currentPlayerIndex == PlayerIndex) {
-      int nudgeFactor = nudge * cardPosition / 4;
+      int nudgeFactor = (int) (nudge * offset);
       return nudgeFactor;
     }
     return 0;
@@ -92,6 +108,7 @@ public class Nudge {
   public void reset() {
     cardIndex = -1;
     currentPlayerIndex = -1;
+    offset = 0;
   }
 
 }
@@ -0,0 +1,150 @@
+package jjj.cardgames.crazyeights;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Packs an ordering of the 52 cards into its rank among all 52! orderings, which fits in 226 bits.
+ *
+ * The ordering is first written as its Lehmer code: for each position, how many of the cards not
+ * yet placed have a smaller id than the card placed there. The digits are then read as one number
+ * in the factorial number system, so every ordering has a distinct rank below 52!. The rank is held
+ * in eight 32-bit limbs while it is built and stored big-endian in {@link #BYTES} bytes.
+ *
+ * Each thread keeps one set of limbs, and decoding works out the digits in the order array itself,
+ * so neither encoding nor decoding allocates.
+ *
+ * @author Joshua Hardman
+ *
+ */
+public class PermutationCode {
+
+  /**
+   * The number of bytes holding one rank.
+   */
+  public static final int BYTES = 29;
+
+  private static final int LIMBS = 8;
+  private static final long LIMB_BITS = 0xffffffffL;
+  // Gives every thread its own limbs to work in.
+  private static final ThreadLocal<long[]> LIMBS_IN_USE =
+      ThreadLocal.withInitial(() -> new long[LIMBS]);
+
+  private PermutationCode() {}
+
+  /**
+   * Writes the rank of the 52 card ids starting at the given offset of order to the given offset of
+   * code.
+   *
+   * @throws IllegalArgumentException If the ids are not an ordering of the whole deck.
+   */
+  public static void encode(byte[] order, int offset, byte[] code, int codeOffset) {
+    long[] limbs = clearLimbs();
+    long remaining = CardMask.DECK;
+    for (int i = 0; i < Card.DECK_SIZE; i++) {
+      int id = order[offset + i];
+      long bit = 1L << id;
+      if (id < 0 || id >= Card.DECK_SIZE || (remaining & bit) == 0) {
+        throw new IllegalArgumentException("Not an ordering of the deck at position " + i);
+      }
+      // Multiplies the rank so far by the number of cards left and adds this card's digit.
+      long carry = Long.bitCount(remaining & (bit - 1));
+      remaining &= ~bit;
+      for (int j = 0; j < LIMBS; j++) {
+        long value = limbs[j] * (Card.DECK_SIZE - i) + carry;
+        limbs[j] = value & LIMB_BITS;
+        carry = value >>> 32;
+      }
+    }
+    for (int k = 0; k < BYTES; k++) {
+      int bit = (BYTES - 1 - k) * 8;
+      code[codeOffset + k] = (byte) (limbs[bit >>> 5] >>> (bit & 31));
+    }
+  }
+
+  /**
+   * Writes the 52 card ids of the ordering with the rank at the given offset of code to the given
+   * offset of order.
+   *
+   * @throws IllegalArgumentException If the rank is not below 52!, leaving order undefined.
+   */
+  public static void decode(byte[] code, int codeOffset, byte[] order, int offset) {
+    long[] limbs = clearLimbs();
+    for (int k = 0; k < BYTES; k++) {
+      int bit = (BYTES - 1 - k) * 8;
+      limbs[bit >>> 5] |= (code[codeOffset + k] & 0xffL) << (bit & 31);
+    }
+    decode(limbs, order, offset);
+  }
+
+  /**
+   * Writes the 52 card ids of the ordering with the rank at the given absolute position of the
+   * buffer to the given offset of order, without moving the buffer's position.
+   *
+   * @throws IllegalArgumentException If the rank is not below 52!, leaving order undefined.
+   */
+  public static void decode(ByteBuffer code, int position, byte[] order, int offset) {
+    long[] limbs = clearLimbs();
+    for (int k = 0; k < BYTES; k++) {
+      int bit = (BYTES - 1 - k) * 8;
+      limbs[bit >>> 5] |= (code.get(position + k) & 0xffL) << (bit & 31);
+    }
+    decode(limbs, order, offset);
+  }
+
+  /**
+   * Returns the calling thread's limbs, set to zero.
+   */
+  private static long[] clearLimbs() {
+    long[] limbs = LIMBS_IN_USE.get();
+    Arrays.fill(limbs, 0L);
+    return limbs;
+  }
+
+  /**
+   * Writes the ordering with the rank held in the given limbs to the given offset of order, using
+   * up the limbs.
+   */
+  private static void decode(long[] limbs, byte[] order, int offset) {
+    // Divides out the digits from the last position, whose radix is 1, to the first, dividing by as
+    // many radices at once as fit in 31 bits so the long division runs a few times, not 52. The
+    // digits are written where their cards will go.
+    int i = Card.DECK_SIZE - 1;
+    while (i >= 0) {
+      long product = 1;
+      int next = i;
+      while (next >= 0 && product * (Card.DECK_SIZE - next) <= Integer.MAX_VALUE) {
+        product *= Card.DECK_SIZE - next;
+        next--;
+      }
+      long remainder = 0;
+      for (int j = LIMBS - 1; j >= 0; j--) {
+        long value = (remainder << 32) | limbs[j];
+        limbs[j] = value / product;
+        remainder = value % product;
+      }
+      for (; i > next; i--) {
+        int radix = Card.DECK_SIZE - i;
+        order[offset + i] = (byte) (remainder % radix);
+        remainder /= radix;
+      }
+    }
+    for (int j = 0; j < LIMBS; j++) {
+      if (limbs[j] != 0) {
+        throw new IllegalArgumentException("Rank is not below 52!");
+      }
+    }
+
+    long remaining = CardMask.DECK;
+    for (i = 0; i < Card.DECK_SIZE; i++) {
+      // Takes the card with as many smaller cards left as the digit.
+      long bits = remaining;
+      for (int d = order[offset + i]; d > 0; d--) {
+        bits &= bits - 1;
+      }
+      int id = Long.numberOfTrailingZeros(bits);
+      order[offset + i] = (byte) id;
+      remaining &= ~(1L << id);
+    }
+  }
+}
@@ -10,13 +10,22 @@ public class Player {
 
   private String name;
   private CardCollection hand;
+  private Strategy strategy;
 
   /**
    * Constructs a player with an empty hand.
    */
   public Player(String name) {
+    this(name, new CardList(name));
+  }
+
+  /**
+   * Constructs a player holding the given, normally empty, hand. Used to choose the hand
+   * representation, such as a {@link CardMask} for simulated games.
+   */
+  public Player(String name, CardCollection hand) {
     this.name = name;
-    this.hand = new CardCollection(name);
+    this.hand = hand;
   }
 
   /**
@@ -32,4 +41,19 @@ public class Player {
   public CardCollection getHand() {
     return hand;
   }
+
+  /**
+   * Gets the strategy which chooses this player's cards when the computer plays for them, or null
+   * if the computer plays the first matching card.
+   */
+  public Strategy getStrategy() {
+    return strategy;
+  }
+
+  /**
+   * Sets the strategy which chooses this player's cards when the computer plays for them.
+   */
+  public void setStrategy(Strategy strategy) {
+    this.strategy = strategy;
+  }
 }
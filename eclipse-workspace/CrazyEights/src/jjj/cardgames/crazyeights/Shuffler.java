@@ -0,0 +1,138 @@
+package jjj.cardgames.crazyeights;
+
+import java.util.SplittableRandom;
+
+/**
+ * Randomly permutes cards with an unbiased Fisher-Yates shuffle.
+ *
+ * Each shuffler owns its random source, so a seeded shuffler gives reproducible deals and threads
+ * which each hold their own shuffler never contend. Use {@link #split()} to hand independent
+ * streams to worker threads and {@link #current()} where no particular stream is needed.
+ *
+ * @author Joshua Hardman
+ *
+ */
+public class Shuffler {
+
+  // The odd constant used to spread stream numbers across the seed space.
+  private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+  // Provides every thread with its own shuffler for unseeded shuffles.
+  private static final ThreadLocal<Shuffler> CURRENT = ThreadLocal.withInitial(Shuffler::new);
+
+  private final SplittableRandom random;
+
+  /**
+   * Constructs a shuffler with an unpredictable seed.
+   */
+  public Shuffler() {
+    this(new SplittableRandom());
+  }
+
+  /**
+   * Constructs a shuffler whose shuffles are reproducible for the given seed.
+   */
+  public Shuffler(long seed) {
+    this(new SplittableRandom(seed));
+  }
+
+  /**
+   * Constructs a shuffler drawing on the given random source.
+   */
+  public Shuffler(SplittableRandom random) {
+    this.random = random;
+  }
+
+  /**
+   * Returns a shuffler for the given numbered stream of a seed. Streams depend only on the seed and
+   * the stream number, so work can be spread across any number of threads and still be
+   * reproduced.
+   */
+  public static Shuffler forStream(long seed, long stream) {
+    // Scrambles the pair so that neighbouring streams start far apart in the random sequence.
+    long z = seed + stream * GOLDEN_GAMMA;
+    z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+    z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+    return new Shuffler(z ^ (z >>> 33));
+  }
+
+  /**
+   * Returns the calling thread's shuffler.
+   */
+  public static Shuffler current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * Returns a new shuffler with a random stream independent of this one.
+   */
+  public Shuffler split() {
+    return new Shuffler(random.split());
+  }
+
+  /**
+   * Returns a random int between zero (inclusive) and the bound (exclusive).
+   */
+  public int nextInt(int bound) {
+    return random.nextInt(bound);
+  }
+
+  /**
+   * Randomly permutes the cards of the given collection.
+   */
+  public void shuffle(CardPile cards) {
+    for (int i = cards.size() - 1; i > 0; i--) {
+      int j = random.nextInt(i + 1);
+      cards.swapCards(i, j);
+    }
+  }
+
+  /**
+   * Randomly permutes n card ids of the given array, starting at the given offset.
+   */
+  public void shuffle(byte[] ids, int offset, int n) {
+    for (int i = n - 1; i > 0; i--) {
+      int j = random.nextInt(i + 1);
+      byte temp = ids[offset + i];
+      ids[offset + i] = ids[offset + j];
+      ids[offset + j] = temp;
+    }
+  }
+
+  /**
+   * Draws the random numbers a shuffle of n cards would use, without permuting anything, so a deck
+   * laid out in an order shuffled earlier leaves the shuffler where shuffling it would have.
+   */
+  public void skipShuffle(int n) {
+    for (int i = n - 1; i > 0; i--) {
+      random.nextInt(i + 1);
+    }
+  }
+
+  /**
+   * Fills the given array with consecutive random orderings of the 52 card ids. Any trailing
+   * space too short for a whole ordering is left untouched.
+   *
+   * @param orders The array to fill, 52 ids per ordering.
+   * @return The number of orderings written.
+   */
+  public int permutations(byte[] orders) {
+    int count = orders.length / Card.DECK_SIZE;
+    for (int p = 0; p < count; p++) {
+      int offset = p * Card.DECK_SIZE;
+      for (int id = 0; id < Card.DECK_SIZE; id++) {
+        orders[offset + id] = (byte) id;
+      }
+      shuffle(orders, offset, Card.DECK_SIZE);
+    }
+    return count;
+  }
+
+  /**
+   * Returns the given number of random orderings of the 52 card ids, 52 ids per ordering.
+   */
+  public byte[] permutations(int count) {
+    byte[] orders = new byte[count * Card.DECK_SIZE];
+    permutations(orders);
+    return orders;
+  }
+}
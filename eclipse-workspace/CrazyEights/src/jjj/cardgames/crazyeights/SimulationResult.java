@@ -0,0 +1,166 @@
+package jjj.cardgames.crazyeights;
+
+/**
+ * Totals gathered from a batch of simulated games. Each worker fills its own result and results
+ * are merged pairwise, so no counter is ever shared between threads.
+ *
+ * @author Joshua Hardman
+ *
+ */
+public class SimulationResult {
+
+  private long games;
+  private long[] wins;
+  private long blocked;
+  private long turns;
+  private long turnsSquared;
+  private int longestGame;
+  private long draws;
+  private long reshuffles;
+  private long reshufflesSquared;
+
+  /**
+   * Constructs an empty result for games with the given number of players.
+   */
+  public SimulationResult(int amountOfPlayers) {
+    this.wins = new long[amountOfPlayers];
+  }
+
+  /**
+   * Records one finished game.
+   *
+   * @param winner The index of the winning player, or {@link EightsBatch#NO_WINNER} if the game
+   *     was blocked, nobody being able to play or draw.
+   * @param gameTurns The number of turns the game took.
+   * @param gameDraws The number of cards drawn during the game.
+   * @param gameReshuffles The number of reshuffles during the game.
+   */
+  public void addGame(int winner, int gameTurns, int gameDraws, int gameReshuffles) {
+    games++;
+    if (winner == EightsBatch.NO_WINNER) {
+      blocked++;
+    } else {
+      wins[winner]++;
+    }
+    turns += gameTurns;
+    turnsSquared += (long) gameTurns * gameTurns;
+    longestGame = Math.max(longestGame, gameTurns);
+    draws += gameDraws;
+    reshuffles += gameReshuffles;
+    reshufflesSquared += (long) gameReshuffles * gameReshuffles;
+  }
+
+  /**
+   * Adds the totals of the given result to this one.
+   */
+  public void merge(SimulationResult that) {
+    games += that.games;
+    for (int i = 0; i < wins.length; i++) {
+      wins[i] += that.wins[i];
+    }
+    blocked += that.blocked;
+    turns += that.turns;
+    turnsSquared += that.turnsSquared;
+    longestGame = Math.max(longestGame, that.longestGame);
+    draws += that.draws;
+    reshuffles += that.reshuffles;
+    reshufflesSquared += that.reshufflesSquared;
+  }
+
+  /**
+   * Returns the number of games recorded.
+   */
+  public long getGames() {
+    return games;
+  }
+
+  /**
+   * Returns the number of players in each game.
+   */
+  public int getAmountOfPlayers() {
+    return wins.length;
+  }
+
+  /**
+   * Returns the number of games won by the player with the given index.
+   */
+  public long getWins(int player) {
+    return wins[player];
+  }
+
+  /**
+   * Returns the fraction of games won by the player with the given index.
+   */
+  public double getWinRate(int player) {
+    return (double) wins[player] / games;
+  }
+
+  /**
+   * Returns the number of games which nobody won, because nobody could play or draw.
+   */
+  public long getBlockedGames() {
+    return blocked;
+  }
+
+  /**
+   * Returns the mean number of turns per game.
+   */
+  public double getAverageTurns() {
+    return (double) turns / games;
+  }
+
+  /**
+   * Returns the standard deviation of the number of turns per game.
+   */
+  public double getTurnsDeviation() {
+    double mean = getAverageTurns();
+    return Math.sqrt(Math.max(0.0, (double) turnsSquared / games - mean * mean));
+  }
+
+  /**
+   * Returns the number of turns in the longest game.
+   */
+  public int getLongestGame() {
+    return longestGame;
+  }
+
+  /**
+   * Returns the mean number of cards drawn per game.
+   */
+  public double getAverageDraws() {
+    return (double) draws / games;
+  }
+
+  /**
+   * Returns the mean number of reshuffles per game.
+   */
+  public double getAverageReshuffles() {
+    return (double) reshuffles / games;
+  }
+
+  /**
+   * Returns the standard deviation of the number of reshuffles per game.
+   */
+  public double getReshufflesDeviation() {
+    double mean = getAverageReshuffles();
+    return Math.sqrt(Math.max(0.0, (double) reshufflesSquared / games - mean * mean));
+  }
+
+  /**
+   * Returns a String representation of the totals.
+   */
+  public String toString() {
+    StringBuilder text = new StringBuilder();
+    text.append(String.format("%d games, %d players%n", games, wins.length));
+    for (int i = 0; i < wins.length; i++) {
+      text.append(String.format("Player %d wins: %d (%.2f%%)%n", i + 1, wins[i],
+          100.0 * getWinRate(i)));
+    }
+    text.append(String.format("Blocked: %d (%.2f%%)%n", blocked, 100.0 * blocked / games));
+    text.append(String.format("Turns: %.2f average, %.2f deviation, %d longest%n",
+        getAverageTurns(), getTurnsDeviation(), longestGame));
+    text.append(String.format("Average draws: %.2f, reshuffles: %.3f", getAverageDraws(),
+        getAverageReshuffles()));
+    return text.toString();
+  }
+}
@@ -0,0 +1,192 @@
+package jjj.cardgames.crazyeights;
+
+import java.awt.AWTException;
+import java.awt.AlphaComposite;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsDevice;
+import java.awt.Image;
+import java.awt.ImageCapabilities;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+
+/**
+ * Many sprites packed into one sheet in the screen's own pixel format, so drawing a sprite is a
+ * copy of part of the sheet which the graphics hardware can do, rather than a conversion of a
+ * separate image done in software.
+ *
+ * The sheet is built for the graphics configuration it is first drawn to and rebuilt if that
+ * changes, such as when the window moves to another screen. Where the configuration can, a copy
+ * is kept in video memory as a {@link VolatileImage} and restored from the sheet whenever its
+ * contents are lost. Sprites drawn into an image in system memory, such as a cached layer, are
+ * copied from the sheet instead, since copying from video memory would read every pixel back.
+ *
+ * @author Joshua Hardman
+ *
+ */
+public class SpriteAtlas {
+
+  // The widest the sheet grows before sprites start a new row.
+  private static final int MAX_WIDTH = 1024;
+
+  private BufferedImage[] sources;
+  private int[] spriteX;
+  private int[] spriteY;
+  private int width;
+  private int height;
+  private int transparency;
+  private GraphicsConfiguration configuration;
+  private BufferedImage sheet;
+  private VolatileImage vram;
+
+  /**
+   * Constructs an atlas of the given sprites, each drawn by its index in the array.
+   */
+  public SpriteAtlas(BufferedImage[] sprites) {
+    this.sources = sprites.clone();
+    spriteX = new int[sprites.length];
+    spriteY = new int[sprites.length];
+    // Lays the sprites out left to right in rows as tall as their tallest sprite.
+    int x = 0;
+    int y = 0;
+    int rowHeight = 0;
+    for (int i = 0; i < sprites.length; i++) {
+      BufferedImage sprite = sprites[i];
+      if (x > 0 && x + sprite.getWidth() > MAX_WIDTH) {
+        x = 0;
+        y += rowHeight;
+        rowHeight = 0;
+      }
+      spriteX[i] = x;
+      spriteY[i] = y;
+      x += sprite.getWidth();
+      rowHeight = Math.max(rowHeight, sprite.getHeight());
+      width = Math.max(width, x);
+      transparency = Math.max(transparency, sprite.getTransparency());
+    }
+    height = y + rowHeight;
+  }
+
+  /**
+   * Returns the width of the given sprite.
+   */
+  public int getWidth(int sprite) {
+    return sources[sprite].getWidth();
+  }
+
+  /**
+   * Returns the height of the given sprite.
+   */
+  public int getHeight(int sprite) {
+    return sources[sprite].getHeight();
+  }
+
+  /**
+   * Draws the given sprite with its top left corner at the given coordinates.
+   *
+   * @param g The graphics to draw to.
+   * @param gc The configuration of the surface drawn to, or null if it has none yet.
+   * @param sprite The index of the sprite.
+   * @param x Specified x-coordinate.
+   * @param y Specified y-coordinate.
+   */
+  public void draw(Graphics g, GraphicsConfiguration gc, int sprite, int x, int y) {
+    Image source = prepare(gc);
+    if (source == vram && drawsToImage(g)) {
+      source = sheet;
+    }
+    int w = sources[sprite].getWidth();
+    int h = sources[sprite].getHeight();
+    int sx = spriteX[sprite];
+    int sy = spriteY[sprite];
+    g.drawImage(source, x, y, x + w, y + h, sx, sy, sx + w, sy + h, null);
+    // Draws again from the sheet if video memory was lost while drawing.
+    if (source == vram && vram.contentsLost()) {
+      g.drawImage(sheet, x, y, x + w, y + h, sx, sy, sx + w, sy + h, null);
+    }
+  }
+
+  /**
+   * Releases the copy in video memory, which is made again on the next draw.
+   */
+  public void flush() {
+    if (vram != null) {
+      vram.flush();
+      vram = null;
+    }
+    configuration = null;
+  }
+
+  /**
+   * True if the given graphics draws into an image in system memory rather than to the screen or
+   * video memory.
+   */
+  private static boolean drawsToImage(Graphics g) {
+    return g instanceof Graphics2D && ((Graphics2D) g).getDeviceConfiguration().getDevice()
+        .getType() == GraphicsDevice.TYPE_IMAGE_BUFFER;
+  }
+
+  /**
+   * Returns the image to draw from for the given configuration, building or restoring it first if
+   * need be.
+   */
+  private Image prepare(GraphicsConfiguration gc) {
+    if (sheet == null || gc != configuration) {
+      flush();
+      build(gc);
+    }
+    if (vram != null) {
+      int status = vram.validate(gc);
+      if (status == VolatileImage.IMAGE_INCOMPATIBLE) {
+        vram.flush();
+        vram = createVolatile(gc);
+      } else if (status == VolatileImage.IMAGE_RESTORED) {
+        copySheetTo(vram);
+      }
+    }
+    return vram != null ? vram : sheet;
+  }
+
+  /**
+   * Builds the sheet in the given configuration's format, and its copy in video memory if the
+   * configuration offers one.
+   */
+  private void build(GraphicsConfiguration gc) {
+    configuration = gc;
+    sheet = gc != null ? gc.createCompatibleImage(width, height, transparency)
+        : new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+    Graphics2D g = sheet.createGraphics();
+    for (int i = 0; i < sources.length; i++) {
+      g.drawImage(sources[i], spriteX[i], spriteY[i], null);
+    }
+    g.dispose();
+    vram = gc != null ? createVolatile(gc) : null;
+  }
+
+  /**
+   * Returns an accelerated copy of the sheet in video memory, or null if none can be made.
+   */
+  private VolatileImage createVolatile(GraphicsConfiguration gc) {
+    VolatileImage image;
+    try {
+      image = gc.createCompatibleVolatileImage(width, height, new ImageCapabilities(true),
+          transparency);
+    } catch (AWTException ex) {
+      return null;
+    }
+    image.validate(gc);
+    copySheetTo(image);
+    return image;
+  }
+
+  /**
+   * Copies the sheet into the given image, replacing whatever it held.
+   */
+  private void copySheetTo(VolatileImage image) {
+    Graphics2D g = image.createGraphics();
+    g.setComposite(AlphaComposite.Src);
+    g.drawImage(sheet, 0, 0, null);
+    g.dispose();
+  }
+}
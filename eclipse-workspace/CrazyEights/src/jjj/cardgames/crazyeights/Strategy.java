@@ -0,0 +1,21 @@
+package jjj.cardgames.crazyeights;
+
+/**
+ * Decides which card a computer player plays. {@link EightsLogic} asks the strategy of the current
+ * player whenever they hold at least one playable card; with none they must draw until they can
+ * play.
+ *
+ * @author Joshua Hardman
+ *
+ */
+public interface Strategy {
+
+  /**
+   * Chooses a card to play. Called only when the view has at least one legal move.
+   *
+   * @param game The game as seen from the deciding player's seat.
+   * @param deadline The {@link System#nanoTime()} by which the decision must be returned.
+   * @return One of the cards in {@link GameView#getLegalMoves()}.
+   */
+  Card chooseCard(GameView game, long deadline);
+}
@@ -0,0 +1,181 @@
+package jjj.cardgames.crazyeights;
+
+/**
+ * The 24 ways of relabelling the four suits. The rules treat every suit alike, so relabelling the
+ * suits of every card in a game gives a game played the same way; picking one of the 24 as the
+ * representative lets caches share what they know between equivalent games.
+ *
+ * @author Joshua Hardman
+ *
+ */
+public class SuitSymmetry {
+
+  /**
+   * The number of suit permutations, the first being the identity.
+   */
+  public static final int PERMUTATIONS = 24;
+
+  private static final int SUITS = Suit.values().length;
+  private static final int RANKS = Rank.values().length;
+  private static final long SUIT_BITS = (1L << RANKS) - 1;
+
+  // The suit each suit becomes, and the id each card becomes, under each permutation.
+  private static final int[][] SUIT_MAP = new int[PERMUTATIONS][SUITS];
+  private static final byte[][] CARD_MAP = new byte[PERMUTATIONS][Card.DECK_SIZE];
+  private static final int[] INVERSE = new int[PERMUTATIONS];
+
+  static {
+    int p = 0;
+    for (int a = 0; a < SUITS; a++) {
+      for (int b = 0; b < SUITS; b++) {
+        for (int c = 0; c < SUITS; c++) {
+          int d = 6 - a - b - c;
+          if (a != b && a != c && b != c && d != a && d != b && d != c) {
+            SUIT_MAP[p++] = new int[] {a, b, c, d};
+          }
+        }
+      }
+    }
+    for (p = 0; p < PERMUTATIONS; p++) {
+      for (int card = 0; card < Card.DECK_SIZE; card++) {
+        CARD_MAP[p][card] = (byte) (SUIT_MAP[p][card / RANKS] * RANKS + card % RANKS);
+      }
+      for (int q = 0; q < PERMUTATIONS; q++) {
+        boolean undoes = true;
+        for (int suit = 0; suit < SUITS; suit++) {
+          undoes &= SUIT_MAP[q][SUIT_MAP[p][suit]] == suit;
+        }
+        if (undoes) {
+          INVERSE[p] = q;
+        }
+      }
+    }
+  }
+
+  private SuitSymmetry() {}
+
+  /**
+   * Returns the id the given card has under the given permutation.
+   */
+  public static int permute(int card, int permutation) {
+    return CARD_MAP[permutation][card];
+  }
+
+  /**
+   * Returns the mask of the given cards under the given permutation.
+   */
+  public static long permute(long cards, int permutation) {
+    int[] suits = SUIT_MAP[permutation];
+    long result = 0L;
+    for (int suit = 0; suit < SUITS; suit++) {
+      result |= ((cards >>> (suit * RANKS)) & SUIT_BITS) << (suits[suit] * RANKS);
+    }
+    return result;
+  }
+
+  /**
+   * Returns the permutation which undoes the given one.
+   */
+  public static int inverse(int permutation) {
+    return INVERSE[permutation];
+  }
+
+  /**
+   * Relabels the suits of the given game to its representative, the permutation giving the
+   * smallest hands in seat order, then card to match, then draw pile.
+   *
+   * @return The permutation applied; a card chosen in the representative is mapped back to the
+   *         original game with its {@link #inverse(int)}.
+   */
+  public static int canonicalize(GameState state) {
+    int best = 0;
+    for (int p = 1; p < PERMUTATIONS; p++) {
+      if (compare(state, p, best) < 0) {
+        best = p;
+      }
+    }
+    state.permuteSuits(best);
+    return best;
+  }
+
+  /**
+   * Compares the given game under two permutations, hand by hand and then by the piles.
+   */
+  private static int compare(GameState state, int p, int q) {
+    for (int i = 0; i < state.getAmountOfPlayers(); i++) {
+      long hand = state.getHand(i);
+      int order = Long.compareUnsigned(permute(hand, p), permute(hand, q));
+      if (order != 0) {
+        return order;
+      }
+    }
+    int card = state.getCardToMatch();
+    int order = Integer.compare(permute(card, p), permute(card, q));
+    if (order != 0) {
+      return order;
+    }
+    long drawPile = state.getDrawPile();
+    return Long.compareUnsigned(permute(drawPile, p), permute(drawPile, q));
+  }
+
+  /**
+   * A position hash which is the same for every relabelling of the suits, updated in step with the
+   * game at the cost of one XOR per permutation. It keeps the Zobrist hash of the game under each
+   * permutation and takes the smallest as the hash of the class.
+   *
+   * The 24 XORs per card moved make a search slower per node, which only pays where equivalent
+   * positions come up often, so {@link EndgameSolver} keeps the plain Zobrist hash. Benchmark a
+   * search with both before switching it over.
+   */
+  public static class Hash {
+
+    private long[] hashes = new long[PERMUTATIONS];
+
+    /**
+     * Toggles a key which no suit changes, such as the player to move.
+     */
+    public void toggle(long key) {
+      for (int p = 0; p < PERMUTATIONS; p++) {
+        hashes[p] ^= key;
+      }
+    }
+
+    /**
+     * Toggles the given card in the given player's hand.
+     */
+    public void toggleHand(int player, int card) {
+      for (int p = 0; p < PERMUTATIONS; p++) {
+        hashes[p] ^= Zobrist.hand(player, CARD_MAP[p][card]);
+      }
+    }
+
+    /**
+     * Toggles the given card as the card to match.
+     */
+    public void toggleCardToMatch(int card) {
+      for (int p = 0; p < PERMUTATIONS; p++) {
+        hashes[p] ^= Zobrist.cardToMatch(CARD_MAP[p][card]);
+      }
+    }
+
+    /**
+     * Toggles the given card in the draw pile.
+     */
+    public void toggleDrawPile(int card) {
+      for (int p = 0; p < PERMUTATIONS; p++) {
+        hashes[p] ^= Zobrist.drawPile(CARD_MAP[p][card]);
+      }
+    }
+
+    /**
+     * Returns the hash shared by every relabelling of the suits.
+     */
+    public long get() {
+      long min = hashes[0];
+      for (int p = 1; p < PERMUTATIONS; p++) {
+        min = Math.min(min, hashes[p]);
+      }
+      return min;
+    }
+  }
+}
@@ -0,0 +1,174 @@
+package jjj.cardgames.crazyeights;
+
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+
+/**
+ * Plays computer strategies against each other round-robin in the duplicate format.
+ *
+ * Every table of as many entrants as there are players plays the same deals. Each deal is played
+ * once for every rotation of the entrants around the table, so each entrant holds every hand and
+ * sits in every seat, and the luck of the deal cancels out of their scores. Deal n is always dealt
+ * from stream n of the tournament seed, or read as deal n of a {@link DealLibrary}, so the results
+ * for a given seed are the same whatever the number of threads, apart from any randomness in the
+ * strategies themselves.
+ *
+ * Ranges of deals are played as fork-join tasks, each worker with its own {@link EightsRunner} and
+ * its own instance of every strategy, since strategies may keep state between moves.
+ *
+ * @author Joshua Hardman
+ *
+ */
+public class Tournament {
+
+  // The largest number of deals played by a task without splitting further.
+  private static final int DEALS_PER_TASK = 64;
+
+  private int amountOfPlayers;
+  private long seed;
+  private ArrayList<String> names;
+  private ArrayList<Supplier<Strategy>> factories;
+  private DealLibrary library;
+
+  /**
+   * Constructs a tournament at tables of the given number of players, reproducible for the given
+   * seed.
+   */
+  public Tournament(int amountOfPlayers, long seed) {
+    this.amountOfPlayers = amountOfPlayers;
+    this.seed = seed;
+    this.names = new ArrayList<String>();
+    this.factories = new ArrayList<Supplier<Strategy>>();
+  }
+
+  /**
+   * Adds an entrant whose strategy is created by the given factory, once per worker. A factory
+   * returning null enters a player who plays the first matching card.
+   */
+  public void addEntrant(String name, Supplier<Strategy> factory) {
+    names.add(name);
+    factories.add(factory);
+  }
+
+  /**
+   * Deals from the given library instead of shuffling. Reshuffles are still drawn from stream n of
+   * the seed, so a library written for the same seed plays exactly the deals it would shuffle.
+   */
+  public void setLibrary(DealLibrary library) {
+    this.library = library;
+  }
+
+  /**
+   * Plays the given number of deals at every table using the given number of threads and returns
+   * the scores.
+   */
+  public TournamentResult run(long deals, int threads) {
+    if (names.size() < amountOfPlayers) {
+      throw new IllegalArgumentException(
+          "A tournament of " + amountOfPlayers + " players needs as many entrants");
+    }
+    if (library != null && deals > library.size()) {
+      throw new IllegalArgumentException("The library holds only " + library.size() + " deals");
+    }
+    ForkJoinPool pool = new ForkJoinPool(threads);
+    try {
+      return pool.invoke(new DealsTask(0, deals));
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * Plays deals first (inclusive) to last (exclusive) at every table on the calling thread and
+   * returns the scores.
+   */
+  public TournamentResult play(long first, long last) {
+    Strategy[] strategies = new Strategy[factories.size()];
+    for (int i = 0; i < strategies.length; i++) {
+      strategies[i] = factories.get(i).get();
+    }
+    EightsRunner runner = new EightsRunner(amountOfPlayers, null);
+    TournamentResult result = new TournamentResult(names, amountOfPlayers);
+    int[] wins = new int[amountOfPlayers];
+    byte[] order = library == null ? null : new byte[Card.DECK_SIZE];
+    for (int[] table : tables()) {
+      for (long deal = first; deal < last; deal++) {
+        for (int i = 0; i < amountOfPlayers; i++) {
+          wins[i] = 0;
+        }
+        if (library != null) {
+          library.getDeal(deal, order);
+        }
+        // In rotation r the entrant at place p of the table sits in seat p - r.
+        for (int r = 0; r < amountOfPlayers; r++) {
+          for (int seat = 0; seat < amountOfPlayers; seat++) {
+            runner.setStrategy(seat, strategies[table[(seat + r) % amountOfPlayers]]);
+          }
+          int winner = runner.playGame(order, Shuffler.forStream(seed, deal));
+          wins[(winner + r) % amountOfPlayers]++;
+        }
+        for (int i = 0; i < amountOfPlayers; i++) {
+          result.addDeal(table[i], wins[i]);
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns every choice of entrants for one table, each in increasing order.
+   */
+  private ArrayList<int[]> tables() {
+    ArrayList<int[]> tables = new ArrayList<int[]>();
+    int[] table = new int[amountOfPlayers];
+    for (int i = 0; i < amountOfPlayers; i++) {
+      table[i] = i;
+    }
+    while (true) {
+      tables.add(table.clone());
+      // Advances the rightmost place which can still move up, resetting those after it.
+      int i = amountOfPlayers - 1;
+      while (i >= 0 && table[i] == names.size() - amountOfPlayers + i) {
+        i--;
+      }
+      if (i < 0) {
+        return tables;
+      }
+      table[i]++;
+      for (int j = i + 1; j < amountOfPlayers; j++) {
+        table[j] = table[j - 1] + 1;
+      }
+    }
+  }
+
+  /**
+   * Splits a range of deals in half until it is small enough to play directly.
+   */
+  private class DealsTask extends RecursiveTask<TournamentResult> {
+
+    private static final long serialVersionUID = -4385410930127754170L;
+
+    private long first;
+    private long last;
+
+    DealsTask(long first, long last) {
+      this.first = first;
+      this.last = last;
+    }
+
+    @Override
+    protected TournamentResult compute() {
+      if (last - first <= DEALS_PER_TASK) {
+        return play(first, last);
+      }
+      long middle = (first + last) >>> 1;
+      DealsTask lower = new DealsTask(first, middle);
+      lower.fork();
+      TournamentResult result = new DealsTask(middle, last).compute();
+      result.merge(lower.join());
+      return result;
+    }
+  }
+}
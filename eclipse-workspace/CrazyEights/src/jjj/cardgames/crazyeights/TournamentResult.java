@@ -0,0 +1,150 @@
+package jjj.cardgames.crazyeights;
+
+import java.util.ArrayList;
+
+/**
+ * Scores gathered from a {@link Tournament}. Each worker fills its own result and results are
+ * merged pairwise, so no counter is ever shared between threads.
+ *
+ * An entrant's score for one deal at one table is their share of the games won over every rotation
+ * of that deal. Their win rate is the mean of those scores and its confidence interval comes from
+ * their spread across deals, which the duplicate format keeps small.
+ *
+ * @author Joshua Hardman
+ *
+ */
+public class TournamentResult {
+
+  // The normal quantile for a two-sided 95% confidence interval.
+  private static final double Z_95 = 1.959964;
+
+  private ArrayList<String> names;
+  private int amountOfPlayers;
+  private long[] deals;
+  private long[] wins;
+  private long[] winsSquared;
+
+  /**
+   * Constructs an empty result for the given entrants at tables of the given number of players.
+   */
+  public TournamentResult(ArrayList<String> names, int amountOfPlayers) {
+    this.names = names;
+    this.amountOfPlayers = amountOfPlayers;
+    this.deals = new long[names.size()];
+    this.wins = new long[names.size()];
+    this.winsSquared = new long[names.size()];
+  }
+
+  /**
+   * Records the games won by the given entrant over every rotation of one deal.
+   */
+  public void addDeal(int entrant, int dealWins) {
+    deals[entrant]++;
+    wins[entrant] += dealWins;
+    winsSquared[entrant] += dealWins * dealWins;
+  }
+
+  /**
+   * Adds the scores of the given result to this one.
+   */
+  public void merge(TournamentResult that) {
+    for (int i = 0; i < deals.length; i++) {
+      deals[i] += that.deals[i];
+      wins[i] += that.wins[i];
+      winsSquared[i] += that.winsSquared[i];
+    }
+  }
+
+  /**
+   * Returns the number of entrants.
+   */
+  public int getEntrants() {
+    return names.size();
+  }
+
+  /**
+   * Returns the name of the entrant with the given index.
+   */
+  public String getName(int entrant) {
+    return names.get(entrant);
+  }
+
+  /**
+   * Returns the number of games played by the given entrant.
+   */
+  public long getGames(int entrant) {
+    return deals[entrant] * amountOfPlayers;
+  }
+
+  /**
+   * Returns the fraction of their games won by the given entrant.
+   */
+  public double getWinRate(int entrant) {
+    return (double) wins[entrant] / getGames(entrant);
+  }
+
+  /**
+   * Returns the half-width of the 95% confidence interval of the given entrant's win rate.
+   */
+  public double getWinRateError(int entrant) {
+    long n = deals[entrant];
+    if (n < 2) {
+      return Double.POSITIVE_INFINITY;
+    }
+    // Scores are wins over the rotations of a deal, so their variance is scaled back down.
+    double mean = (double) wins[entrant] / n;
+    double variance = ((double) winsSquared[entrant] - n * mean * mean) / (n - 1);
+    return Z_95 * Math.sqrt(variance / n) / amountOfPlayers;
+  }
+
+  /**
+   * Returns the given entrant's Elo rating against an average entrant.
+   */
+  public double getElo(int entrant) {
+    return elo(getWinRate(entrant));
+  }
+
+  /**
+   * Returns the lower and upper ends of the 95% confidence interval of the given entrant's Elo
+   * rating.
+   */
+  public double[] getEloInterval(int entrant) {
+    double rate = getWinRate(entrant);
+    double error = getWinRateError(entrant);
+    return new double[] {elo(rate - error), elo(rate + error)};
+  }
+
+  /**
+   * Converts a win rate at a table to an Elo rating. Treating the others at the table as equal, a
+   * player r times as strong wins a share r / (r + players - 1) of the games, and 400 points make
+   * a player ten times as strong; at two players this is the usual Elo expected score.
+   */
+  private double elo(double rate) {
+    if (rate <= 0.0) {
+      return Double.NEGATIVE_INFINITY;
+    }
+    if (rate >= 1.0) {
+      return Double.POSITIVE_INFINITY;
+    }
+    double strength = rate * (amountOfPlayers - 1) / (1.0 - rate);
+    return 400.0 * Math.log10(strength);
+  }
+
+  /**
+   * Returns a String representation of the scores, one entrant per line.
+   */
+  public String toString() {
+    StringBuilder text = new StringBuilder();
+    text.append(String.format("%d entrants, %d players per table%n", names.size(),
+        amountOfPlayers));
+    text.append(String.format("%-16s %10s %17s %8s %16s", "Entrant", "Games", "Win rate (95%)",
+        "Elo", "Elo (95%)"));
+    for (int i = 0; i < names.size(); i++) {
+      double[] interval = getEloInterval(i);
+      text.append(String.format("%n%-16s %10d %7.2f%% +/- %5.2f %+8.0f %+7.0f to %+5.0f",
+          names.get(i), getGames(i), 100.0 * getWinRate(i), 100.0 * getWinRateError(i), getElo(i),
+          interval[0], interval[1]));
+    }
+    return text.toString();
+  }
+}
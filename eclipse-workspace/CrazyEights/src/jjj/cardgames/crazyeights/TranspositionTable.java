@@ -0,0 +1,99 @@
+package jjj.cardgames.crazyeights;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size table of solved positions, keyed by Zobrist hash and shared by every search thread
+ * without locks.
+ *
+ * Each bucket has two slots: the first keeps the entry searched deepest and the second always
+ * takes the newest. Entries are stored as the key XORed with the data next to the data itself, so
+ * a slot torn by two threads writing at once fails the key check instead of returning wrong data.
+ *
+ * An entry holds a win probability for each of up to four players in 12 bits each, the depth it
+ * was searched to, and whether that search was exact.
+ *
+ * @author Joshua Hardman
+ *
+ */
+public class TranspositionTable {
+
+  // The resolution of a stored probability.
+  private static final int SCALE = (1 << 12) - 1;
+  private static final int DEPTH_SHIFT = 48;
+  private static final long EXACT = 1L << 56;
+
+  // Two longs per slot and two slots per bucket: the key XOR data, then the data.
+  private long[] slots;
+  private int bucketMask;
+
+  /**
+   * Constructs a table with the given number of buckets, rounded up to a power of two.
+   */
+  public TranspositionTable(int buckets) {
+    int size = Integer.highestOneBit(Math.max(1, buckets - 1)) << 1;
+    this.slots = new long[size * 4];
+    this.bucketMask = size - 1;
+  }
+
+  /**
+   * Looks up a position searched to at least the given depth, or exactly.
+   *
+   * @param hash The position's hash.
+   * @param depth The depth the caller needs.
+   * @param values Receives the win probability of each player if the position is found.
+   * @return -1 if the position isn't usable, 1 if it was solved exactly, otherwise 0.
+   */
+  public int probe(long hash, int depth, float[] values) {
+    int bucket = ((int) hash & bucketMask) * 4;
+    for (int slot = bucket; slot < bucket + 4; slot += 2) {
+      long data = slots[slot + 1];
+      if ((slots[slot] ^ data) == hash) {
+        boolean exact = (data & EXACT) != 0;
+        if (exact || depth(data) >= depth) {
+          for (int i = 0; i < values.length; i++) {
+            values[i] = (float) ((data >>> (12 * i)) & SCALE) / SCALE;
+          }
+          return exact ? 1 : 0;
+        }
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Stores a searched position, replacing the deeper slot only with a search at least as deep.
+   */
+  public void store(long hash, int depth, boolean exact, float[] values) {
+    long data = (long) Math.min(depth, 255) << DEPTH_SHIFT;
+    if (exact) {
+      data |= EXACT;
+    }
+    for (int i = 0; i < values.length; i++) {
+      data |= (long) Math.round(values[i] * SCALE) << (12 * i);
+    }
+    int bucket = ((int) hash & bucketMask) * 4;
+    long kept = slots[bucket + 1];
+    boolean keptExact = (kept & EXACT) != 0;
+    int slot = bucket;
+    if (kept != 0 && (keptExact && !exact || depth(kept) > depth)) {
+      slot = bucket + 2;
+    }
+    slots[slot] = hash ^ data;
+    slots[slot + 1] = data;
+  }
+
+  /**
+   * Empties the table.
+   */
+  public void clear() {
+    Arrays.fill(slots, 0L);
+  }
+
+  /**
+   * Returns the depth held in an entry's data.
+   */
+  private static int depth(long data) {
+    return (int) (data >>> DEPTH_SHIFT) & 0xff;
+  }
+}
@@ -0,0 +1,79 @@
+package jjj.cardgames.crazyeights;
+
+import java.util.function.DoubleConsumer;
+
+/**
+ * A value moving in a straight line from one number to another over a set time, advanced frame by
+ * frame by an {@link Animator}.
+ *
+ * @author Joshua Hardman
+ *
+ */
+public class Tween {
+
+  private double from;
+  private double to;
+  private long duration;
+  private DoubleConsumer target;
+  private long start;
+  private double value;
+
+  /**
+   * Constructs a tween from one value to another over the given time.
+   */
+  public Tween(double from, double to, long durationMillis) {
+    this(from, to, durationMillis, null);
+  }
+
+  /**
+   * Constructs a tween from one value to another over the given time, handing each new value to
+   * the given target.
+   */
+  public Tween(double from, double to, long durationMillis, DoubleConsumer target) {
+    this.from = from;
+    this.to = to;
+    this.duration = durationMillis * 1000000L;
+    this.target = target;
+    this.value = from;
+  }
+
+  /**
+   * Returns the value at the last frame.
+   */
+  public double getValue() {
+    return value;
+  }
+
+  /**
+   * Starts the tween at the given {@link System#nanoTime()}.
+   */
+  void start(long now) {
+    start = now;
+    set(from);
+  }
+
+  /**
+   * Moves the value on to the given {@link System#nanoTime()}.
+   *
+   * @return True once the value has reached its end.
+   */
+  boolean advance(long now) {
+    long elapsed = now - start;
+    if (elapsed >= duration) {
+      set(to);
+      return true;
+    }
+    set(from + (to - from) * elapsed / duration);
+    return false;
+  }
+
+  /**
+   * Sets the value and hands it to the target.
+   */
+  private void set(double value) {
+    this.value = value;
+    if (target != null) {
+      target.accept(value);
+    }
+  }
+}
@@ -0,0 +1,103 @@
+package jjj.cardgames.crazyeights;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random keys for Zobrist hashing of game positions. A position's hash is the XOR of the keys of
+ * its parts, so moving a card updates the hash with one or two XORs instead of rehashing.
+ *
+ * @author Joshua Hardman
+ *
+ */
+public class Zobrist {
+
+  /**
+   * The most players a hash can describe.
+   */
+  public static final int MAX_PLAYERS = 4;
+
+  // The keys are fixed so hashes are the same from run to run.
+  private static final long SEED = 0x43726179456967L;
+
+  private static final long[][] HAND = new long[MAX_PLAYERS][Card.DECK_SIZE];
+  private static final long[] CARD_TO_MATCH = new long[Card.DECK_SIZE];
+  private static final long[] DRAW_PILE = new long[Card.DECK_SIZE];
+  private static final long[] SEAT = new long[MAX_PLAYERS];
+  private static final long[] PLAYERS = new long[MAX_PLAYERS + 1];
+
+  static {
+    SplittableRandom random = new SplittableRandom(SEED);
+    for (int card = 0; card < Card.DECK_SIZE; card++) {
+      for (int player = 0; player < MAX_PLAYERS; player++) {
+        HAND[player][card] = random.nextLong();
+      }
+      CARD_TO_MATCH[card] = random.nextLong();
+      DRAW_PILE[card] = random.nextLong();
+    }
+    for (int player = 0; player < MAX_PLAYERS; player++) {
+      SEAT[player] = random.nextLong();
+    }
+    for (int players = 0; players <= MAX_PLAYERS; players++) {
+      PLAYERS[players] = random.nextLong();
+    }
+  }
+
+  private Zobrist() {}
+
+  /**
+   * Returns the key of the given card in the given player's hand.
+   */
+  public static long hand(int player, int card) {
+    return HAND[player][card];
+  }
+
+  /**
+   * Returns the key of the given cards in the given player's hand.
+   */
+  public static long hand(int player, long cards) {
+    long hash = 0L;
+    for (long bits = cards; bits != 0; bits &= bits - 1) {
+      hash ^= HAND[player][Long.numberOfTrailingZeros(bits)];
+    }
+    return hash;
+  }
+
+  /**
+   * Returns the key of the given card on top of the discard pile.
+   */
+  public static long cardToMatch(int card) {
+    return CARD_TO_MATCH[card];
+  }
+
+  /**
+   * Returns the key of the given card in the draw pile.
+   */
+  public static long drawPile(int card) {
+    return DRAW_PILE[card];
+  }
+
+  /**
+   * Returns the key of the given cards in the draw pile, in any order.
+   */
+  public static long drawPile(long cards) {
+    long hash = 0L;
+    for (long bits = cards; bits != 0; bits &= bits - 1) {
+      hash ^= DRAW_PILE[Long.numberOfTrailingZeros(bits)];
+    }
+    return hash;
+  }
+
+  /**
+   * Returns the key of the given player being the one to move.
+   */
+  public static long seat(int player) {
+    return SEAT[player];
+  }
+
+  /**
+   * Returns the key of a game with the given number of players.
+   */
+  public static long players(int amountOfPlayers) {
+    return PLAYERS[amountOfPlayers];
+  }
+}
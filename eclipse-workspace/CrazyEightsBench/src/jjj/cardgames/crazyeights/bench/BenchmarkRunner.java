@@ -0,0 +1,113 @@
+package jjj.cardgames.crazyeights.bench;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Times small pieces of engine code and reports their throughput and allocation rate.
+ *
+ * Each benchmark is warmed up for a fixed time so the JIT has compiled it, then measured over
+ * several timed iterations. Allocation is read from the JVM's per-thread allocation counter, which
+ * is the same source the JMH GC profiler uses.
+ *
+ * @author Joshua Hardman
+ *
+ */
+public class BenchmarkRunner {
+
+  /**
+   * A piece of code to be measured. Returns a value so the work can't be optimised away.
+   */
+  public interface Benchmark {
+    long run();
+  }
+
+  private long warmupMillis;
+  private long iterationMillis;
+  private int iterations;
+  private com.sun.management.ThreadMXBean threads;
+  // Collects benchmark results so the JIT can't discard the work producing them.
+  private volatile long sink;
+
+  /**
+   * Constructs a runner with the given warm-up time and number and length of timed iterations.
+   */
+  public BenchmarkRunner(long warmupMillis, int iterations, long iterationMillis) {
+    this.warmupMillis = warmupMillis;
+    this.iterations = iterations;
+    this.iterationMillis = iterationMillis;
+    // Allocation counting is a HotSpot extension; without it only throughput is reported.
+    java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    if (bean instanceof com.sun.management.ThreadMXBean) {
+      threads = (com.sun.management.ThreadMXBean) bean;
+      threads.setThreadAllocatedMemoryEnabled(true);
+    }
+  }
+
+  /**
+   * Prints the column headings for {@link #measure}.
+   */
+  public void printHeader() {
+    System.out.printf("%-32s %14s %10s %12s%n", "Benchmark", "ops/s", "error %", "B/op");
+  }
+
+  /**
+   * Warms up and measures the given benchmark, then prints one line of results.
+   */
+  public void measure(String name, Benchmark benchmark) {
+    runFor(benchmark, warmupMillis);
+    double[] rates = new double[iterations];
+    long operations = 0;
+    long allocatedBefore = allocatedBytes();
+    for (int i = 0; i < iterations; i++) {
+      long start = System.nanoTime();
+      long count = runFor(benchmark, iterationMillis);
+      rates[i] = count / ((System.nanoTime() - start) / 1e9);
+      operations += count;
+    }
+    long allocatedAfter = allocatedBytes();
+
+    double mean = 0;
+    for (double rate : rates) {
+      mean += rate / iterations;
+    }
+    double variance = 0;
+    for (double rate : rates) {
+      variance += (rate - mean) * (rate - mean) / Math.max(1, iterations - 1);
+    }
+    double error = 100 * Math.sqrt(variance) / mean;
+    String bytesPerOp = "n/a";
+    if (allocatedBefore >= 0) {
+      double bytes = (double) (allocatedAfter - allocatedBefore) / operations;
+      bytesPerOp = String.format("%.1f", bytes);
+    }
+    System.out.printf("%-32s %14.0f %10.2f %12s%n", name, mean, error, bytesPerOp);
+  }
+
+  /**
+   * Runs the benchmark repeatedly for at least the given time and returns how many times it ran.
+   */
+  private long runFor(Benchmark benchmark, long millis) {
+    long deadline = System.nanoTime() + millis * 1000000L;
+    long count = 0;
+    long result = 0;
+    // Checks the clock in batches so the timing calls don't dominate very short benchmarks.
+    do {
+      for (int i = 0; i < 64; i++) {
+        result += benchmark.run();
+      }
+      count += 64;
+    } while (System.nanoTime() < deadline);
+    sink += result;
+    return count;
+  }
+
+  /**
+   * Returns the bytes allocated so far by the calling thread, or -1 if that can't be measured.
+   */
+  private long allocatedBytes() {
+    if (threads == null) {
+      return -1;
+    }
+    return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+}
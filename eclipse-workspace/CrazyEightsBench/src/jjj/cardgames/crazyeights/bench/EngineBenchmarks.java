@@ -0,0 +1,208 @@
+package jjj.cardgames.crazyeights.bench;
+
+import java.util.ArrayList;
+import jjj.cardgames.crazyeights.Card;
+import jjj.cardgames.crazyeights.CardCollection;
+import jjj.cardgames.crazyeights.CardList;
+import jjj.cardgames.crazyeights.CardMask;
+import jjj.cardgames.crazyeights.CardPile;
+import jjj.cardgames.crazyeights.CardStack;
+import jjj.cardgames.crazyeights.EightsBatch;
+import jjj.cardgames.crazyeights.EightsLogic;
+import jjj.cardgames.crazyeights.EightsRunner;
+import jjj.cardgames.crazyeights.PermutationCode;
+import jjj.cardgames.crazyeights.Player;
+import jjj.cardgames.crazyeights.Shuffler;
+
+/**
+ * Benchmarks for the hot paths of the Crazy Eights engine: shuffling and dealing, searching and
+ * drawing for a match, reshuffling, packing deals for a deal library, and whole computer-only
+ * games, one at a time or in lockstep batches.
+ *
+ * Run with an optional argument to measure only the benchmarks whose names contain it. The
+ * allocation budgets of whole games are checked by the {@code allocation} check, not here.
+ *
+ * @author Joshua Hardman
+ *
+ */
+public class EngineBenchmarks {
+
+  private static final long SEED = 20180720L;
+  // The games in each batch; a batch benchmark's time per op covers the whole batch.
+  private static final int BATCH_SIZE = 256;
+
+  public static void main(String[] args) {
+    String filter = args.length > 0 ? args[0] : "";
+    BenchmarkRunner runner = new BenchmarkRunner(1000, 5, 1000);
+    runner.printHeader();
+    for (String name : new String[] {"shuffle.list", "shuffle.stack", "deal.list", "deal.stack",
+        "dealAll.list", "dealAll.stack", "searchForMatch", "drawForMatch", "reshuffle",
+        "encodeDeal", "decodeDeal", "playout.2", "playout.3", "playout.4", "batch.2", "batch.3",
+        "batch.4"}) {
+      if (name.contains(filter)) {
+        runner.measure(name, create(name));
+      }
+    }
+  }
+
+  /**
+   * Sets up the state for the named benchmark and returns it.
+   */
+  private static BenchmarkRunner.Benchmark create(String name) {
+    Shuffler shuffler = new Shuffler(SEED);
+    switch (name) {
+      case "shuffle.list":
+        return shuffle(new CardList("Deck"), shuffler);
+      case "shuffle.stack":
+        return shuffle(new CardStack("Deck"), shuffler);
+      case "deal.list":
+        return deal(new CardList("Deck"), new CardList("Hand"), 5);
+      case "deal.stack":
+        return deal(new CardStack("Deck"), new CardStack("Hand"), 5);
+      case "dealAll.list":
+        return deal(new CardList("Deck"), new CardList("Draw pile"), Card.DECK_SIZE);
+      case "dealAll.stack":
+        return deal(new CardStack("Deck"), new CardStack("Draw pile"), Card.DECK_SIZE);
+      case "searchForMatch":
+        return searchForMatch(shuffler);
+      case "drawForMatch":
+        return drawForMatch(shuffler);
+      case "reshuffle":
+        return reshuffle(shuffler);
+      case "encodeDeal":
+        return encodeDeal(shuffler, false);
+      case "decodeDeal":
+        return encodeDeal(shuffler, true);
+      case "batch.2":
+      case "batch.3":
+      case "batch.4":
+        return batch(Integer.parseInt(name.substring("batch.".length())));
+      default:
+        int amountOfPlayers = Integer.parseInt(name.substring("playout.".length()));
+        EightsRunner games = new EightsRunner(amountOfPlayers, shuffler);
+        return () -> games.playGame();
+    }
+  }
+
+  /**
+   * Shuffles a full deck.
+   */
+  private static BenchmarkRunner.Benchmark shuffle(CardPile deck, Shuffler shuffler) {
+    deck.deck();
+    return () -> {
+      deck.shuffle(shuffler);
+      return deck.last().getId();
+    };
+  }
+
+  /**
+   * Deals n cards from a full deck, using dealAll for the whole deck, then returns them.
+   */
+  private static BenchmarkRunner.Benchmark deal(CardCollection deck, CardCollection that, int n) {
+    deck.deck();
+    return () -> {
+      if (n == deck.size()) {
+        deck.dealAll(that);
+      } else {
+        deck.deal(that, n);
+      }
+      int size = that.size();
+      that.dealAll(deck);
+      return size;
+    };
+  }
+
+  /**
+   * Searches a seven-card hand for a card matching a different top card each time. Any card found
+   * is put back so the hand stays the same.
+   */
+  private static BenchmarkRunner.Benchmark searchForMatch(Shuffler shuffler) {
+    EightsLogic logic = newGame(2, shuffler);
+    CardCollection hand = logic.getPlayer(0).getHand();
+    logic.getDrawPile().deal(hand, 2);
+    int[] next = new int[1];
+    return () -> {
+      Card cardToMatch = Card.of(next[0]++ % Card.DECK_SIZE);
+      Card card = logic.searchForMatch(hand, cardToMatch);
+      if (card == null) {
+        return -1;
+      }
+      hand.addCard(card);
+      return card.getId();
+    };
+  }
+
+  /**
+   * Draws from a live game until a card matches the top discard, then plays it. The unmatched
+   * cards go onto the discard pile too, so the draw pile empties and is reshuffled regularly.
+   */
+  private static BenchmarkRunner.Benchmark drawForMatch(Shuffler shuffler) {
+    EightsLogic logic = newGame(2, shuffler);
+    CardCollection discardPile = logic.getDiscardPile();
+    CardCollection hand = new CardMask("Hand");
+    return () -> {
+      Card card = logic.drawForMatch(hand, discardPile.last());
+      hand.dealAll(discardPile);
+      discardPile.addCard(card);
+      return card.getId();
+    };
+  }
+
+  /**
+   * Returns the draw pile to the discard pile under its top card, then reshuffles it back.
+   */
+  private static BenchmarkRunner.Benchmark reshuffle(Shuffler shuffler) {
+    EightsLogic logic = newGame(2, shuffler);
+    CardCollection drawPile = logic.getDrawPile();
+    CardCollection discardPile = logic.getDiscardPile();
+    return () -> {
+      Card cardToMatch = discardPile.popCard();
+      drawPile.dealAll(discardPile);
+      discardPile.addCard(cardToMatch);
+      logic.reshuffle();
+      return drawPile.last().getId();
+    };
+  }
+
+  /**
+   * Packs a shuffled deck order into its permutation rank, or unpacks the rank again.
+   */
+  private static BenchmarkRunner.Benchmark encodeDeal(Shuffler shuffler, boolean decode) {
+    byte[] order = shuffler.permutations(1);
+    byte[] code = new byte[PermutationCode.BYTES];
+    PermutationCode.encode(order, 0, code, 0);
+    return () -> {
+      if (decode) {
+        PermutationCode.decode(code, 0, order, 0);
+      } else {
+        PermutationCode.encode(order, 0, code, 0);
+      }
+      return order[0] + code[0];
+    };
+  }
+
+  /**
+   * Plays a batch of games in lockstep, a new batch of the same seed each time.
+   */
+  private static BenchmarkRunner.Benchmark batch(int amountOfPlayers) {
+    EightsBatch batch = new EightsBatch(BATCH_SIZE, amountOfPlayers);
+    long[] next = new long[1];
+    return () -> {
+      batch.deal(SEED, next[0], BATCH_SIZE);
+      next[0] += BATCH_SIZE;
+      batch.play();
+      return batch.getTurns(0);
+    };
+  }
+
+  /**
+   * Deals a new game for the given number of players with bitmask hands.
+   */
+  private static EightsLogic newGame(int amountOfPlayers, Shuffler shuffler) {
+    ArrayList<Player> players = new ArrayList<Player>();
+    for (int i = 0; i < amountOfPlayers; i++) {
+      players.add(new Player("Player " + (i + 1), new CardMask("Player " + (i + 1))));
+    }
+    return new EightsLogic(players, shuffler);
+  }
+}
@@ -0,0 +1,119 @@
+package jjj.cardgames.crazyeights.check;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import jjj.cardgames.crazyeights.Card;
+import jjj.cardgames.crazyeights.DealLibrary;
+import jjj.cardgames.crazyeights.EightsRunner;
+import jjj.cardgames.crazyeights.EightsSimulation;
+import jjj.cardgames.crazyeights.PermutationCode;
+import jjj.cardgames.crazyeights.Shuffler;
+
+/**
+ * Checks that computer-only games stay within their allocation budgets once warmed up, both one
+ * at a time through {@link EightsRunner} and the way {@code --simulate} plays them, through
+ * {@link EightsSimulation#play(long, long)}.
+ *
+ * A game played by a runner should allocate nothing. A simulated game is dealt from its own
+ * {@link Shuffler#forStream(long, long)}, so its budget allows for that shuffler and a share of
+ * the batch arrays. Fetching a deal from a {@link DealLibrary} into a reused array, and packing a
+ * deal with {@link PermutationCode}, should allocate nothing either.
+ *
+ * Allocation is read from the JVM's per-thread allocation counter, a HotSpot extension; where it
+ * is missing the check records nothing.
+ *
+ * @author Joshua Hardman
+ *
+ */
+public class AllocationCheck implements Check {
+
+  private static final long SEED = 20180720L;
+  // The games played to warm up and then to measure each path.
+  private static final int WARMUP_GAMES = 100000;
+  private static final int GAMES = 100000;
+  // The most bytes a game may allocate, allowing for the allocation counter's noise.
+  private static final double RUNNER_BYTES_PER_GAME = 1.0;
+  private static final double SIMULATE_BYTES_PER_GAME = 96.0;
+  // The deals in the library read, each fetched many times over.
+  private static final int LIBRARY_DEALS = 1000;
+  private static final int FETCHES = 200000;
+  private static final double BYTES_PER_FETCH = 1.0;
+
+  @Override
+  public String getName() {
+    return "allocation";
+  }
+
+  @Override
+  public void run(CheckReport report) throws Exception {
+    java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+      return;
+    }
+    com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+    threads.setThreadAllocatedMemoryEnabled(true);
+    long thread = Thread.currentThread().getId();
+
+    for (int players = 2; players <= 4; players++) {
+      EightsRunner runner = new EightsRunner(players, new Shuffler(SEED));
+      playGames(runner, WARMUP_GAMES);
+      long before = threads.getThreadAllocatedBytes(thread);
+      playGames(runner, GAMES);
+      double bytes = (double) (threads.getThreadAllocatedBytes(thread) - before) / GAMES;
+      report.expect(bytes <= RUNNER_BYTES_PER_GAME,
+          String.format("a %d-player runner game allocates %.1f bytes", players, bytes));
+
+      EightsSimulation simulation = new EightsSimulation(players, SEED);
+      simulation.play(0, WARMUP_GAMES);
+      before = threads.getThreadAllocatedBytes(thread);
+      simulation.play(WARMUP_GAMES, WARMUP_GAMES + GAMES);
+      bytes = (double) (threads.getThreadAllocatedBytes(thread) - before) / GAMES;
+      report.expect(bytes <= SIMULATE_BYTES_PER_GAME,
+          String.format("a %d-player simulated game allocates %.1f bytes", players, bytes));
+    }
+
+    Path file = Files.createTempFile("deals", ".c8d");
+    try {
+      DealLibrary.write(file, LIBRARY_DEALS, SEED);
+      try (DealLibrary library = new DealLibrary(file)) {
+        byte[] order = new byte[Card.DECK_SIZE];
+        byte[] code = new byte[PermutationCode.BYTES];
+        fetchDeals(library, order, code);
+        long before = threads.getThreadAllocatedBytes(thread);
+        fetchDeals(library, order, code);
+        double bytes = (double) (threads.getThreadAllocatedBytes(thread) - before) / FETCHES;
+        report.expect(bytes <= BYTES_PER_FETCH,
+            String.format("fetching and packing a deal allocates %.1f bytes", bytes));
+      }
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  /**
+   * Fetches deals from the library into the given order and packs each again into the given code,
+   * and returns a sum of the codes, so the work can't be optimised away.
+   */
+  private static long fetchDeals(DealLibrary library, byte[] order, byte[] code) {
+    long sum = 0;
+    for (int i = 0; i < FETCHES; i++) {
+      library.getDeal(i % LIBRARY_DEALS, order);
+      PermutationCode.encode(order, 0, code, 0);
+      sum += code[i % code.length];
+    }
+    return sum;
+  }
+
+  /**
+   * Plays the given number of games with the runner and returns the sum of the winners, so the
+   * games can't be optimised away.
+   */
+  private static long playGames(EightsRunner runner, int games) {
+    long winners = 0;
+    for (int i = 0; i < games; i++) {
+      winners += runner.playGame();
+    }
+    return winners;
+  }
+}
@@ -0,0 +1,90 @@
+package jjj.cardgames.crazyeights.check;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
+import jjj.cardgames.crazyeights.Animator;
+import jjj.cardgames.crazyeights.Tween;
+
+/**
+ * Checks the timing of {@link Animator} on a real Swing timer, which runs without a display:
+ * pauses last at least their time and not much more, a tween moves steadily from its start to
+ * exactly its end over about 60 frames a second, actions run in order on the event dispatch
+ * thread, and a cancelled sequence never runs its action.
+ *
+ * @author Joshua Hardman
+ *
+ */
+public class AnimatorCheck implements Check {
+
+  private static final long PAUSE_MILLIS = 100;
+  private static final long TWEEN_MILLIS = 300;
+  // How late a step may run, allowing for a frame and a busy machine.
+  private static final long SLACK_MILLIS = 150;
+
+  @Override
+  public String getName() {
+    return "animator";
+  }
+
+  @Override
+  public void run(CheckReport report) throws Exception {
+    CountDownLatch finished = new CountDownLatch(1);
+    long[] times = new long[3];
+    ArrayList<Double> values = new ArrayList<Double>();
+    boolean[] onEventThread = {true};
+    boolean[] cancelledRan = {false};
+    SwingUtilities.invokeAndWait(() -> {
+      Animator animator = new Animator(new JPanel());
+      times[0] = System.nanoTime();
+      animator.play(new Animator.Sequence()
+          .pause(PAUSE_MILLIS)
+          .then(() -> {
+            times[1] = System.nanoTime();
+            onEventThread[0] &= SwingUtilities.isEventDispatchThread();
+          })
+          .tween(new Tween(0.0, 1.0, TWEEN_MILLIS, values::add))
+          .then(() -> {
+            times[2] = System.nanoTime();
+            onEventThread[0] &= SwingUtilities.isEventDispatchThread();
+            finished.countDown();
+          }));
+      Animator.Sequence cancelled = animator.after(PAUSE_MILLIS, () -> cancelledRan[0] = true);
+      animator.cancel(cancelled);
+    });
+    boolean done = finished.await(10, TimeUnit.SECONDS);
+    if (!report.expect(done, "the sequence did not finish")) {
+      return;
+    }
+    // Lets a frame pass after the pause the cancelled action would have ended.
+    Thread.sleep(2 * SLACK_MILLIS);
+
+    SwingUtilities.invokeAndWait(() -> {
+      long pause = (times[1] - times[0]) / 1000000L;
+      report.expect(pause >= PAUSE_MILLIS && pause < PAUSE_MILLIS + SLACK_MILLIS,
+          "a pause of " + PAUSE_MILLIS + " ms took " + pause + " ms");
+      // The tween starts when the pause was due to end, not on the late frame which ended it.
+      long total = (times[2] - times[0]) / 1000000L;
+      report.expect(total >= PAUSE_MILLIS + TWEEN_MILLIS
+          && total < PAUSE_MILLIS + TWEEN_MILLIS + SLACK_MILLIS,
+          "a pause and tween of " + (PAUSE_MILLIS + TWEEN_MILLIS) + " ms took " + total + " ms");
+      report.expect(onEventThread[0], "an action ran off the event dispatch thread");
+      report.expect(!cancelledRan[0], "a cancelled sequence ran its action");
+
+      report.expect(values.get(0) == 0.0, "the tween started at " + values.get(0));
+      report.expect(values.get(values.size() - 1) == 1.0,
+          "the tween ended at " + values.get(values.size() - 1));
+      boolean steady = true;
+      for (int i = 1; i < values.size(); i++) {
+        steady &= values.get(i) >= values.get(i - 1);
+      }
+      report.expect(steady, "the tween went backwards: " + values);
+      // About 60 frames a second, though a busy machine may drop some.
+      long frames = TWEEN_MILLIS * 60 / 1000;
+      report.expect(values.size() >= frames / 2,
+          "the tween had " + values.size() + " frames, expected about " + frames);
+    });
+  }
+}
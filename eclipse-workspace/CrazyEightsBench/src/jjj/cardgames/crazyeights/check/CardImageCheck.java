@@ -0,0 +1,39 @@
+package jjj.cardgames.crazyeights.check;
+
+import java.awt.image.BufferedImage;
+import jjj.cardgames.crazyeights.Card;
+import jjj.cardgames.crazyeights.CardImageRepository;
+
+/**
+ * Checks that {@link CardImageRepository} decodes every card face and the back, all the same size,
+ * and notes how long the background decoding took. The card images must be on the class path.
+ *
+ * @author Joshua Hardman
+ *
+ */
+public class CardImageCheck implements Check {
+
+  @Override
+  public String getName() {
+    return "cardImages";
+  }
+
+  @Override
+  public void run(CheckReport report) {
+    CardImageRepository images = CardImageRepository.getInstance();
+    images.load();
+    BufferedImage back = images.getBackImage();
+    if (!report.expect(back != null, "the back of the cards was not decoded")) {
+      return;
+    }
+    for (int id = 0; id < Card.DECK_SIZE; id++) {
+      BufferedImage face = images.getImage(id);
+      report.expect(face != null && face.getWidth() == back.getWidth()
+          && face.getHeight() == back.getHeight(), "the face of " + Card.of(id)
+          + " is missing or not the size of the back");
+    }
+    double millis = images.getDecodeTime();
+    report.expect(millis > 0, "the decode time is " + millis + " ms");
+    report.note(String.format("decoded %d images in %.1f ms", Card.DECK_SIZE + 1, millis));
+  }
+}
@@ -0,0 +1,20 @@
+package jjj.cardgames.crazyeights.check;
+
+/**
+ * A self-contained check of one part of the engine, run by {@link Checks}.
+ *
+ * @author Joshua Hardman
+ *
+ */
+public interface Check {
+
+  /**
+   * Returns the name the check is run and reported under.
+   */
+  String getName();
+
+  /**
+   * Runs the check, recording each expectation in the given report.
+   */
+  void run(CheckReport report) throws Exception;
+}
@@ -0,0 +1,71 @@
+package jjj.cardgames.crazyeights.check;
+
+/**
+ * Counts the expectations of the checks run so far and prints each one that fails.
+ *
+ * @author Joshua Hardman
+ *
+ */
+public class CheckReport {
+
+  // The most failures printed for one check; the rest are only counted.
+  private static final int MAX_PRINTED = 10;
+
+  private String check;
+  private long expectations;
+  private long failures;
+  private long checkFailures;
+
+  /**
+   * Starts recording the expectations of the named check.
+   */
+  public void start(String check) {
+    this.check = check;
+    checkFailures = 0;
+  }
+
+  /**
+   * Records an expectation, printing the message if it does not hold.
+   *
+   * @return The condition, so a check can stop when an expectation fails.
+   */
+  public boolean expect(boolean condition, String message) {
+    expectations++;
+    if (!condition) {
+      failures++;
+      checkFailures++;
+      if (checkFailures <= MAX_PRINTED) {
+        System.out.println("  FAIL " + check + ": " + message);
+      }
+    }
+    return condition;
+  }
+
+  /**
+   * Prints a measurement or other note from the check being recorded.
+   */
+  public void note(String message) {
+    System.out.println("  " + check + ": " + message);
+  }
+
+  /**
+   * Returns the number of failures of the check being recorded.
+   */
+  public long getCheckFailures() {
+    return checkFailures;
+  }
+
+  /**
+   * Returns the number of expectations recorded.
+   */
+  public long getExpectations() {
+    return expectations;
+  }
+
+  /**
+   * Returns the number of expectations which did not hold.
+   */
+  public long getFailures() {
+    return failures;
+  }
+}
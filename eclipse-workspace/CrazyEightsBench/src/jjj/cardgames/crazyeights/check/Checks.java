@@ -0,0 +1,45 @@
+package jjj.cardgames.crazyeights.check;
+
+/**
+ * Runs the engine's checks: small programs confirming that an optimised piece of the engine still
+ * agrees with the simple code it replaced, or stays within its budget.
+ *
+ * Run with an optional argument to run only the checks whose names contain it. The run exits with
+ * status 1 if any expectation fails, so it can guard a build.
+ *
+ * @author Joshua Hardman
+ *
+ */
+public class Checks {
+
+  private static final Check[] CHECKS = {new MatchTableCheck(), new SuitSymmetryCheck(),
+      new GameStateCheck(), new AllocationCheck(), new PermutationCodeCheck(),
+      new DealLibraryCheck(), new AnimatorCheck(), new SpriteAtlasCheck(), new CardImageCheck()};
+
+  public static void main(String[] args) {
+    String filter = args.length > 0 ? args[0] : "";
+    CheckReport report = new CheckReport();
+    for (Check check : CHECKS) {
+      if (!check.getName().contains(filter)) {
+        continue;
+      }
+      report.start(check.getName());
+      long expectations = report.getExpectations();
+      long start = System.nanoTime();
+      try {
+        check.run(report);
+      } catch (Exception ex) {
+        report.expect(false, "threw " + ex);
+        ex.printStackTrace(System.out);
+      }
+      System.out.printf("%-24s %-4s %10d expectations %9.3f s%n", check.getName(),
+          report.getCheckFailures() == 0 ? "ok" : "FAIL", report.getExpectations() - expectations,
+          (System.nanoTime() - start) / 1e9);
+    }
+    System.out.printf("%d expectations, %d failed%n", report.getExpectations(),
+        report.getFailures());
+    if (report.getFailures() > 0) {
+      System.exit(1);
+    }
+  }
+}
@@ -0,0 +1,78 @@
+package jjj.cardgames.crazyeights.check;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import jjj.cardgames.crazyeights.Card;
+import jjj.cardgames.crazyeights.DealLibrary;
+import jjj.cardgames.crazyeights.EightsBatch;
+import jjj.cardgames.crazyeights.EightsRunner;
+import jjj.cardgames.crazyeights.Shuffler;
+
+/**
+ * Checks that a {@link DealLibrary} replays the games it was written from: deal n holds the order
+ * shuffled from stream n of the seed, and played with a fresh shuffler of that stream it gives the
+ * same winner, turns, draws and reshuffles as the game shuffled from the stream, whether played by
+ * {@link EightsRunner} or by {@link EightsBatch} as {@code --simulate} plays it.
+ *
+ * @author Joshua Hardman
+ *
+ */
+public class DealLibraryCheck implements Check {
+
+  private static final long SEED = 21;
+  private static final int DEALS = 1000;
+  private static final int PLAYERS = 3;
+
+  @Override
+  public String getName() {
+    return "dealLibrary";
+  }
+
+  @Override
+  public void run(CheckReport report) throws Exception {
+    Path file = Files.createTempFile("deals", ".c8d");
+    try {
+      DealLibrary.write(file, DEALS, SEED);
+      try (DealLibrary library = new DealLibrary(file)) {
+        report.expect(library.size() == DEALS, "library holds " + library.size() + " deals");
+        checkReplays(report, library);
+      }
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  /**
+   * Plays every deal of the library both ways and compares the games.
+   */
+  private static void checkReplays(CheckReport report, DealLibrary library) {
+    EightsBatch batch = new EightsBatch(DEALS, PLAYERS);
+    batch.deal(SEED, 0, DEALS);
+    batch.play();
+    EightsRunner shuffled = new EightsRunner(PLAYERS, null);
+    EightsRunner replayed = new EightsRunner(PLAYERS, null);
+    byte[] order = new byte[Card.DECK_SIZE];
+    byte[] expected = new byte[Card.DECK_SIZE];
+    long reshuffles = 0;
+    for (int n = 0; n < DEALS; n++) {
+      library.getDeal(n, order);
+      Shuffler.forStream(SEED, n).permutations(expected);
+      report.expect(Arrays.equals(order, expected), "deal " + n + " is not the shuffled order");
+
+      int winner = shuffled.playGame(Shuffler.forStream(SEED, n));
+      int replayedWinner = replayed.playGame(order, Shuffler.forStream(SEED, n));
+      report.expect(replayedWinner == winner && replayed.getTurns() == shuffled.getTurns()
+          && replayed.getDraws() == shuffled.getDraws()
+          && replayed.getReshuffles() == shuffled.getReshuffles(),
+          "deal " + n + " replays differently from the shuffled game");
+      report.expect(batch.getWinner(n) == winner && batch.getTurns(n) == shuffled.getTurns()
+          && batch.getDraws(n) == shuffled.getDraws()
+          && batch.getReshuffles(n) == shuffled.getReshuffles(),
+          "game " + n + " of the batch differs from the shuffled game");
+      reshuffles += shuffled.getReshuffles();
+    }
+    // Without reshuffles the replays would agree however the shuffler was left.
+    report.expect(reshuffles > 0, "no game reshuffled");
+  }
+}
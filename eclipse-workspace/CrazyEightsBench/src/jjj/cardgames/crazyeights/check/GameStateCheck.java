@@ -0,0 +1,120 @@
+package jjj.cardgames.crazyeights.check;
+
+import java.util.ArrayList;
+import jjj.cardgames.crazyeights.Card;
+import jjj.cardgames.crazyeights.GameState;
+import jjj.cardgames.crazyeights.MatchTable;
+import jjj.cardgames.crazyeights.Shuffler;
+
+/**
+ * Checks the undo log of {@link GameState} on random games with short draw piles, so reshuffles
+ * are common: undoing each move, one at a time, gives back exactly the state before it, and a
+ * playout leaves nothing in the log.
+ *
+ * @author Joshua Hardman
+ *
+ */
+public class GameStateCheck implements Check {
+
+  private static final int GAMES = 2000;
+  private static final int MAX_MOVES = 200;
+  private static final int PLAYERS = 3;
+
+  @Override
+  public String getName() {
+    return "gameStateUndo";
+  }
+
+  @Override
+  public void run(CheckReport report) {
+    Shuffler shuffler = new Shuffler(15);
+    ArrayList<GameState> before = new ArrayList<GameState>();
+    for (int game = 0; game < GAMES; game++) {
+      GameState state = randomGame(shuffler);
+      state.setRecording(true);
+      before.clear();
+      for (int move = 0; move < MAX_MOVES && !state.isOver(); move++) {
+        GameState copy = state.copy();
+        report.expect(same(copy, state), "copy differs from the state in game " + game);
+        int historySize = state.getHistorySize();
+        state.apply(randomMove(state, shuffler), shuffler);
+        if (state.getHistorySize() > historySize) {
+          before.add(copy);
+        }
+      }
+      for (int move = before.size() - 1; move >= 0; move--) {
+        state.undo();
+        if (!report.expect(same(before.get(move), state),
+            "undoing move " + move + " of game " + game + " does not restore the state")) {
+          break;
+        }
+      }
+      report.expect(state.getHistorySize() == 0, "moves left in the log of game " + game);
+
+      state.setRecording(true);
+      state.playout(shuffler, MAX_MOVES);
+      report.expect(state.getHistorySize() == 0, "playout recorded moves in game " + game);
+    }
+  }
+
+  /**
+   * Returns a game part way through with only a few cards left to draw.
+   */
+  private static GameState randomGame(Shuffler shuffler) {
+    GameState state = new GameState(PLAYERS, MatchTable.STANDARD);
+    byte[] deck = shuffler.permutations(1);
+    int next = 0;
+    for (int i = 0; i < PLAYERS; i++) {
+      long hand = 0L;
+      for (int n = 1 + shuffler.nextInt(8); n > 0; n--) {
+        hand |= 1L << deck[next++];
+      }
+      state.setHand(i, hand);
+    }
+    int drawPileSize = shuffler.nextInt(6);
+    state.setDrawPile(deck, next, drawPileSize);
+    next += drawPileSize;
+    state.setDiscardPile(deck, next, Card.DECK_SIZE - next);
+    state.setSeat(shuffler.nextInt(PLAYERS));
+    return state;
+  }
+
+  /**
+   * Returns a random move: usually a legal card if there is one, otherwise a draw or a pass.
+   */
+  private static int randomMove(GameState state, Shuffler shuffler) {
+    long legal = state.getLegalMoves();
+    int roll = shuffler.nextInt(10);
+    if (legal != 0 && roll < 7) {
+      return GameState.randomCard(legal, shuffler);
+    }
+    return roll < 9 ? GameState.DRAW : GameState.PASS;
+  }
+
+  /**
+   * True if the two games are the same in every detail, including the order of both piles.
+   */
+  private static boolean same(GameState a, GameState b) {
+    if (a.getSeat() != b.getSeat() || a.getWinner() != b.getWinner()
+        || a.getDrawPileSize() != b.getDrawPileSize()
+        || a.getDiscardPileSize() != b.getDiscardPileSize()) {
+      return false;
+    }
+    for (int i = 0; i < PLAYERS; i++) {
+      if (a.getHand(i) != b.getHand(i)) {
+        return false;
+      }
+    }
+    for (int i = 0; i < a.getDrawPileSize(); i++) {
+      if (a.getDrawPileCard(i) != b.getDrawPileCard(i)) {
+        return false;
+      }
+    }
+    for (int i = 0; i < a.getDiscardPileSize(); i++) {
+      if (a.getDiscard(i) != b.getDiscard(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -0,0 +1,49 @@
+package jjj.cardgames.crazyeights.check;
+
+import java.util.ArrayList;
+import jjj.cardgames.crazyeights.Card;
+import jjj.cardgames.crazyeights.EightsLogic;
+import jjj.cardgames.crazyeights.MatchTable;
+import jjj.cardgames.crazyeights.Player;
+import jjj.cardgames.crazyeights.Rank;
+import jjj.cardgames.crazyeights.Shuffler;
+
+/**
+ * Checks that the precomputed {@link MatchTable} agrees with {@link EightsLogic#cardMatches} for
+ * every pair of cards, so a change to either set of rules shows up here.
+ *
+ * @author Joshua Hardman
+ *
+ */
+public class MatchTableCheck implements Check {
+
+  @Override
+  public String getName() {
+    return "matchTable";
+  }
+
+  @Override
+  public void run(CheckReport report) {
+    ArrayList<Player> players = new ArrayList<Player>();
+    players.add(new Player("Player 1"));
+    players.add(new Player("Player 2"));
+    EightsLogic logic = new EightsLogic(players, new Shuffler(1));
+    MatchTable eights = new MatchTable(Rank.EIGHT);
+    for (int top = 0; top < Card.DECK_SIZE; top++) {
+      Card cardToMatch = Card.of(top);
+      long playable = MatchTable.STANDARD.getPlayable(cardToMatch);
+      report.expect(playable == eights.getPlayable(cardToMatch),
+          "standard table differs from eights wild on " + cardToMatch);
+      report.expect((playable & ~((1L << Card.DECK_SIZE) - 1)) == 0,
+          "bits beyond the deck are set on " + cardToMatch);
+      for (int id = 0; id < Card.DECK_SIZE; id++) {
+        Card card = Card.of(id);
+        boolean expected = logic.cardMatches(card, cardToMatch);
+        report.expect(MatchTable.STANDARD.matches(card, cardToMatch) == expected,
+            card + " on " + cardToMatch + ": matches() disagrees with cardMatches()");
+        report.expect(((playable >>> id) & 1) == 1 == expected,
+            card + " on " + cardToMatch + ": getPlayable() disagrees with cardMatches()");
+      }
+    }
+  }
+}
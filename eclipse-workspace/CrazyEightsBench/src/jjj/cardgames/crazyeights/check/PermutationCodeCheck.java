@@ -0,0 +1,93 @@
+package jjj.cardgames.crazyeights.check;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import jjj.cardgames.crazyeights.Card;
+import jjj.cardgames.crazyeights.PermutationCode;
+import jjj.cardgames.crazyeights.Shuffler;
+
+/**
+ * Checks {@link PermutationCode} against ranks worked out directly with BigInteger: random deck
+ * orders encode to their rank and decode back to themselves, the sorted deck is rank zero, the
+ * reversed deck is rank 52! - 1, and an order missing a card is refused.
+ *
+ * @author Joshua Hardman
+ *
+ */
+public class PermutationCodeCheck implements Check {
+
+  private static final int ORDERS = 10000;
+
+  @Override
+  public String getName() {
+    return "permutationCode";
+  }
+
+  @Override
+  public void run(CheckReport report) {
+    byte[] sorted = new byte[Card.DECK_SIZE];
+    byte[] reversed = new byte[Card.DECK_SIZE];
+    for (int i = 0; i < Card.DECK_SIZE; i++) {
+      sorted[i] = (byte) i;
+      reversed[i] = (byte) (Card.DECK_SIZE - 1 - i);
+    }
+    BigInteger factorial = BigInteger.ONE;
+    for (int i = 2; i <= Card.DECK_SIZE; i++) {
+      factorial = factorial.multiply(BigInteger.valueOf(i));
+    }
+    checkOrder(report, sorted, BigInteger.ZERO);
+    checkOrder(report, reversed, factorial.subtract(BigInteger.ONE));
+
+    Shuffler shuffler = new Shuffler(20);
+    byte[] order = new byte[Card.DECK_SIZE];
+    for (int n = 0; n < ORDERS; n++) {
+      shuffler.permutations(order);
+      if (!checkOrder(report, order, rank(order))) {
+        break;
+      }
+    }
+
+    byte[] missing = sorted.clone();
+    missing[0] = 1;
+    boolean refused = false;
+    try {
+      PermutationCode.encode(missing, 0, new byte[PermutationCode.BYTES], 0);
+    } catch (IllegalArgumentException ex) {
+      refused = true;
+    }
+    report.expect(refused, "an order with card 1 twice was encoded");
+  }
+
+  /**
+   * Checks that the order encodes to the given rank and decodes back to itself.
+   *
+   * @return False if it doesn't.
+   */
+  private static boolean checkOrder(CheckReport report, byte[] order, BigInteger rank) {
+    byte[] code = new byte[PermutationCode.BYTES];
+    PermutationCode.encode(order, 0, code, 0);
+    byte[] decoded = new byte[Card.DECK_SIZE];
+    PermutationCode.decode(code, 0, decoded, 0);
+    return report.expect(new BigInteger(1, code).equals(rank),
+        "order " + Arrays.toString(order) + " does not encode to rank " + rank)
+        & report.expect(Arrays.equals(decoded, order),
+            "order " + Arrays.toString(order) + " decodes to " + Arrays.toString(decoded));
+  }
+
+  /**
+   * Returns the rank of the order among all orderings of the deck, from its Lehmer code.
+   */
+  private static BigInteger rank(byte[] order) {
+    BigInteger rank = BigInteger.ZERO;
+    for (int i = 0; i < order.length; i++) {
+      int smaller = 0;
+      for (int j = i + 1; j < order.length; j++) {
+        if (order[j] < order[i]) {
+          smaller++;
+        }
+      }
+      rank = rank.multiply(BigInteger.valueOf(order.length - i)).add(BigInteger.valueOf(smaller));
+    }
+    return rank;
+  }
+}
@@ -0,0 +1,92 @@
+package jjj.cardgames.crazyeights.check;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import jjj.cardgames.crazyeights.Shuffler;
+import jjj.cardgames.crazyeights.SpriteAtlas;
+
+/**
+ * Checks that {@link SpriteAtlas} draws every sprite exactly as the image it was packed from:
+ * random sprites, some wide enough to start new rows of the sheet, are drawn from the atlas and
+ * compared pixel by pixel with their sources, ignoring fully transparent pixels, with nothing
+ * drawn around them from their neighbours on the sheet. The sprites are drawn again after
+ * {@link SpriteAtlas#flush()}, which makes the sheet again.
+ *
+ * @author Joshua Hardman
+ *
+ */
+public class SpriteAtlasCheck implements Check {
+
+  private static final int SPRITES = 60;
+  // Space around a sprite on the canvas, which must stay empty.
+  private static final int BORDER = 2;
+
+  @Override
+  public String getName() {
+    return "spriteAtlas";
+  }
+
+  @Override
+  public void run(CheckReport report) {
+    Shuffler shuffler = new Shuffler(24);
+    BufferedImage[] sprites = new BufferedImage[SPRITES];
+    for (int i = 0; i < SPRITES; i++) {
+      sprites[i] = randomSprite(shuffler, 1 + shuffler.nextInt(i % 10 == 0 ? 600 : 120),
+          1 + shuffler.nextInt(120));
+    }
+    SpriteAtlas atlas = new SpriteAtlas(sprites);
+    checkSprites(report, atlas, sprites);
+    atlas.flush();
+    checkSprites(report, atlas, sprites);
+  }
+
+  /**
+   * Draws each sprite from the atlas onto an empty canvas and compares it with its source.
+   */
+  private static void checkSprites(CheckReport report, SpriteAtlas atlas,
+      BufferedImage[] sprites) {
+    for (int i = 0; i < sprites.length; i++) {
+      BufferedImage source = sprites[i];
+      report.expect(atlas.getWidth(i) == source.getWidth()
+          && atlas.getHeight(i) == source.getHeight(), "sprite " + i + " has the wrong size");
+      BufferedImage canvas = new BufferedImage(source.getWidth() + 2 * BORDER,
+          source.getHeight() + 2 * BORDER, BufferedImage.TYPE_INT_ARGB);
+      Graphics2D g = canvas.createGraphics();
+      atlas.draw(g, null, i, BORDER, BORDER);
+      g.dispose();
+
+      int mismatches = 0;
+      for (int y = 0; y < canvas.getHeight(); y++) {
+        for (int x = 0; x < canvas.getWidth(); x++) {
+          int sx = x - BORDER;
+          int sy = y - BORDER;
+          boolean inside = sx >= 0 && sy >= 0 && sx < source.getWidth() && sy < source.getHeight();
+          int expected = inside ? source.getRGB(sx, sy) : 0;
+          int actual = canvas.getRGB(x, y);
+          // Fully transparent pixels may keep any colour.
+          if (expected >>> 24 == 0 ? actual >>> 24 != 0 : actual != expected) {
+            mismatches++;
+          }
+        }
+      }
+      report.expect(mismatches == 0, "sprite " + i + " differs from its source in " + mismatches
+          + " pixels");
+    }
+  }
+
+  /**
+   * Returns a sprite of the given size whose pixels are each opaque in a random colour or fully
+   * transparent, as in the card images.
+   */
+  private static BufferedImage randomSprite(Shuffler shuffler, int width, int height) {
+    BufferedImage sprite = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        if (shuffler.nextInt(4) != 0) {
+          sprite.setRGB(x, y, 0xff000000 | shuffler.nextInt(1 << 24));
+        }
+      }
+    }
+    return sprite;
+  }
+}
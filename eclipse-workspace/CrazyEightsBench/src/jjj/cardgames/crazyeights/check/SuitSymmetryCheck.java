@@ -0,0 +1,116 @@
+package jjj.cardgames.crazyeights.check;
+
+import jjj.cardgames.crazyeights.Card;
+import jjj.cardgames.crazyeights.GameState;
+import jjj.cardgames.crazyeights.MatchTable;
+import jjj.cardgames.crazyeights.Shuffler;
+import jjj.cardgames.crazyeights.SuitSymmetry;
+import jjj.cardgames.crazyeights.Zobrist;
+
+/**
+ * Checks {@link SuitSymmetry} on random games: each permutation is undone by its inverse, the
+ * canonical hash is the same under every relabelling, and relabelled copies of a game have the same
+ * representative.
+ *
+ * @author Joshua Hardman
+ *
+ */
+public class SuitSymmetryCheck implements Check {
+
+  private static final int GAMES = 2000;
+  private static final int PLAYERS = 3;
+
+  @Override
+  public String getName() {
+    return "suitSymmetry";
+  }
+
+  @Override
+  public void run(CheckReport report) {
+    for (int p = 0; p < SuitSymmetry.PERMUTATIONS; p++) {
+      int inverse = SuitSymmetry.inverse(p);
+      for (int card = 0; card < Card.DECK_SIZE; card++) {
+        report.expect(SuitSymmetry.permute(SuitSymmetry.permute(card, p), inverse) == card,
+            "inverse of permutation " + p + " does not restore card " + card);
+      }
+    }
+
+    Shuffler shuffler = new Shuffler(14);
+    for (int game = 0; game < GAMES; game++) {
+      GameState state = randomGame(shuffler);
+      int p = shuffler.nextInt(SuitSymmetry.PERMUTATIONS);
+      GameState permuted = state.copy();
+      permuted.permuteSuits(p);
+
+      for (int i = 0; i < PLAYERS; i++) {
+        long hand = state.getHand(i);
+        report.expect(SuitSymmetry.permute(SuitSymmetry.permute(hand, p),
+            SuitSymmetry.inverse(p)) == hand, "inverse of permutation " + p + " changes a hand");
+      }
+      report.expect(hash(state).get() == hash(permuted).get(),
+          "canonical hash changes under permutation " + p + " in game " + game);
+
+      GameState canonical = state.copy();
+      int applied = SuitSymmetry.canonicalize(canonical);
+      SuitSymmetry.canonicalize(permuted);
+      report.expect(same(canonical, permuted),
+          "relabelled copies have different representatives in game " + game);
+      canonical.permuteSuits(SuitSymmetry.inverse(applied));
+      report.expect(same(canonical, state),
+          "undoing the canonical permutation does not restore game " + game);
+    }
+  }
+
+  /**
+   * Returns a game part way through: a shuffled deck split into hands of random sizes, a few
+   * discards and the rest as the draw pile.
+   */
+  private static GameState randomGame(Shuffler shuffler) {
+    GameState state = new GameState(PLAYERS, MatchTable.STANDARD);
+    byte[] deck = shuffler.permutations(1);
+    int next = 0;
+    for (int i = 0; i < PLAYERS; i++) {
+      long hand = 0L;
+      for (int n = 1 + shuffler.nextInt(8); n > 0; n--) {
+        hand |= 1L << deck[next++];
+      }
+      state.setHand(i, hand);
+    }
+    int discards = 1 + shuffler.nextInt(10);
+    state.setDiscardPile(deck, next, discards);
+    next += discards;
+    state.setDrawPile(deck, next, Card.DECK_SIZE - next);
+    state.setSeat(shuffler.nextInt(PLAYERS));
+    return state;
+  }
+
+  /**
+   * Returns the canonical hash of the given game, built card by card.
+   */
+  private static SuitSymmetry.Hash hash(GameState state) {
+    SuitSymmetry.Hash hash = new SuitSymmetry.Hash();
+    hash.toggle(Zobrist.players(PLAYERS) ^ Zobrist.seat(state.getSeat()));
+    hash.toggleCardToMatch(state.getCardToMatch());
+    for (int i = 0; i < PLAYERS; i++) {
+      for (long bits = state.getHand(i); bits != 0; bits &= bits - 1) {
+        hash.toggleHand(i, Long.numberOfTrailingZeros(bits));
+      }
+    }
+    for (long bits = state.getDrawPile(); bits != 0; bits &= bits - 1) {
+      hash.toggleDrawPile(Long.numberOfTrailingZeros(bits));
+    }
+    return hash;
+  }
+
+  /**
+   * True if the two games have the same hands, card to match and draw pile cards.
+   */
+  private static boolean same(GameState a, GameState b) {
+    for (int i = 0; i < PLAYERS; i++) {
+      if (a.getHand(i) != b.getHand(i)) {
+        return false;
+      }
+    }
+    return a.getCardToMatch() == b.getCardToMatch() && a.getDrawPile() == b.getDrawPile();
+  }
+}